@@ -0,0 +1,75 @@
+package io.bootify.my_app.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.bootify.my_app.config.JacksonConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serialization of product listings: reflective databind against the application's ObjectMapper, which writes
+ * products with ProductJsonWriter. With "fresh" prices every product gets a new BigDecimal before each write,
+ * like rows read from a database; databind then formats it through toString(), which BigDecimal otherwise caches.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ProductJsonBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    @Param({"databind", "writer"})
+    private String serializer;
+
+    @Param({"shared", "fresh"})
+    private String prices;
+
+    private ObjectMapper objectMapper;
+    private List<ProductDTO> products;
+
+    @Setup
+    public void setup() {
+        objectMapper = "databind".equals(serializer)
+                ? Jackson2ObjectMapperBuilder.json().build()
+                : new JacksonConfig().objectMapper();
+        products = createProducts(size);
+    }
+
+    public static List<ProductDTO> createProducts(int size) {
+        List<ProductDTO> products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ProductDTO dto = new ProductDTO();
+            dto.setId((long) i + 1);
+            dto.setName("Product " + i);
+            dto.setDescription("Generated product number " + i + " for serialization benchmarks");
+            dto.setPrice(BigDecimal.valueOf(1000 + i * 7L, 2));
+            dto.setStockQuantity(i % 500);
+            dto.setActive(i % 10 != 0);
+            products.add(dto);
+        }
+        return products;
+    }
+
+    @Benchmark
+    public void serializeList() throws Exception {
+        if ("fresh".equals(prices)) {
+            for (ProductDTO product : products) {
+                product.setPrice(BigDecimal.valueOf(product.getId() * 7 + 993, 2));
+            }
+        }
+        objectMapper.writeValue(OutputStream.nullOutputStream(), products);
+    }
+}
@@ -0,0 +1,135 @@
+package io.bootify.my_app.repos;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.bootify.my_app.MyAppApplication;
+import io.bootify.my_app.dto.ProductDTO;
+import io.bootify.my_app.model.Product;
+import io.bootify.my_app.service.ProductMapper;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Product list and page reads: managed entities copied into DTOs versus DTOs selected directly, and the full
+ * JSON listing as a DTO list through databind versus rows written straight from JDBC.
+ * Run with the default "-prof gc" to compare gc.alloc.rate.norm per operation.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ProductReadBenchmark {
+
+    private static final Sort BY_NAME = Sort.by("name").and(Sort.by("id"));
+
+    @Param({"10000"})
+    private int products;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository productRepository;
+    private ProductListingQuery productListingQuery;
+    private ObjectMapper objectMapper;
+    private EntityManager entityManager;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        context = SpringApplication.run(MyAppApplication.class,
+                "--server.port=0",
+                "--management.server.port=0",
+                "--app.seed.products=" + products,
+                "--app.seed.users=0",
+                "--spring.jpa.show-sql=false",
+                "--debug=false",
+                "--logging.level.root=WARN",
+                "--logging.level.io.bootify.my_app=WARN",
+                "--logging.level.org.springframework.web=WARN");
+        productRepository = context.getBean(ProductRepository.class);
+        productListingQuery = context.getBean(ProductListingQuery.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        entityManager = context.getBean(EntityManager.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // The former GET /api/products?activeOnly=true: entities with snapshots, then a copy each
+    @Benchmark
+    public List<ProductDTO> activeListEntities() {
+        return readWrite.execute(status -> entityManager
+                .createQuery("SELECT p FROM Product p WHERE p.active = true ORDER BY p.id", Product.class)
+                .getResultStream()
+                .map(ProductMapper::toDTO)
+                .toList());
+    }
+
+    @Benchmark
+    public List<ProductDTO> activeListEntitiesReadOnly() {
+        return readOnly.execute(status -> entityManager
+                .createQuery("SELECT p FROM Product p WHERE p.active = true ORDER BY p.id", Product.class)
+                .getResultStream()
+                .map(ProductMapper::toDTO)
+                .toList());
+    }
+
+    @Benchmark
+    public List<ProductDTO> activeListDtos() {
+        return productRepository.findActiveDtos();
+    }
+
+    @Benchmark
+    public List<ProductDTO> pageEntities() {
+        return readWrite.execute(status -> productRepository
+                .findByActiveTrue(ScrollPosition.keyset(), BY_NAME, Limit.of(50), Product.class)
+                .map(ProductMapper::toDTO)
+                .getContent());
+    }
+
+    @Benchmark
+    public List<ProductDTO> pageDtos() {
+        return productRepository
+                .findByActiveTrue(ScrollPosition.keyset(), BY_NAME, Limit.of(50), ProductDTO.class)
+                .getContent();
+    }
+
+    // The former GET /api/products: every product collected as DTOs, then serialized
+    @Benchmark
+    public void fullListDtosJson() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), productRepository.findAllDtos());
+    }
+
+    @Benchmark
+    public void fullListStreamedJson() throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(OutputStream.nullOutputStream())) {
+            productListingQuery.all(false).writeTo(generator);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package io.bootify.my_app.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Token issuing and validation, with and without the verified-token cache, for shared-secret (HS512) and
+ * public-key (ES256) signatures.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtBenchmark {
+
+    static final String SECRET = "c8d15ec8b80f46f2952c3f3b6d0794342459b6742df52173753011d861d4f17a";
+    static final String SESSION_ID = "5f0c4f7e-2d5b-4c53-9a7e-0d3c1b2a4e6f";
+
+    @Param({"HS512", "ES256"})
+    private String algorithm;
+
+    private JwtUtils cachedJwtUtils;
+    private JwtUtils uncachedJwtUtils;
+    private UserDetails user;
+    private Instant sessionExpiresAt;
+    private String token;
+
+    @Setup
+    public void setup() {
+        JwtKeyRing keyRing = keyRing(algorithm);
+        cachedJwtUtils = jwtUtils(10_000, keyRing);
+        uncachedJwtUtils = jwtUtils(0, keyRing);
+
+        user = User.withUsername("admin").password("").roles("ADMIN").build();
+        sessionExpiresAt = Instant.now().plus(7, ChronoUnit.DAYS);
+        token = cachedJwtUtils.generateJwtToken(user, SESSION_ID, sessionExpiresAt);
+    }
+
+    static JwtKeyRing keyRing(String algorithm) {
+        JwtKeyRing keyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(keyRing, "algorithm", algorithm);
+        ReflectionTestUtils.setField(keyRing, "secret", SECRET);
+        ReflectionTestUtils.setField(keyRing, "keysDir", "");
+        try {
+            keyRing.init();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return keyRing;
+    }
+
+    static JwtUtils jwtUtils(int cacheSize, JwtKeyRing keyRing) {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "keyRing", keyRing);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 900_000);
+        ReflectionTestUtils.setField(jwtUtils, "tokenCacheMaxSize", cacheSize);
+        jwtUtils.init();
+        return jwtUtils;
+    }
+
+    @Benchmark
+    public String generateJwtToken() {
+        return cachedJwtUtils.generateJwtToken(user, SESSION_ID, sessionExpiresAt);
+    }
+
+    @Benchmark
+    public boolean validateJwtTokenCached() {
+        return cachedJwtUtils.validateJwtToken(token);
+    }
+
+    @Benchmark
+    public boolean validateJwtTokenUncached() {
+        return uncachedJwtUtils.validateJwtToken(token);
+    }
+}
@@ -0,0 +1,63 @@
+package io.bootify.my_app.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+
+/**
+ * The per-request revocation check, for a session that is not revoked (the common case) and one that is,
+ * with revocations spread over the buckets of one access-token lifetime.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TokenRevocationListBenchmark {
+
+    @Param({"0", "1000", "10000"})
+    private int revokedSessions;
+
+    private TokenRevocationList revocationList;
+    private String activeSession;
+    private String revokedSession;
+
+    @Setup
+    public void setup() {
+        revocationList = revocationList(revokedSessions);
+        activeSession = UUID.randomUUID().toString();
+        revokedSession = UUID.randomUUID().toString();
+        revocationList.revoke(revokedSession, System.currentTimeMillis() + 900_000);
+    }
+
+    static TokenRevocationList revocationList(int revokedSessions) {
+        TokenRevocationList revocationList = new TokenRevocationList();
+        ReflectionTestUtils.setField(revocationList, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(revocationList, "bucketMs", 300_000L);
+        ReflectionTestUtils.setField(revocationList, "bloomBits", 65_536);
+        revocationList.init();
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < revokedSessions; i++) {
+            revocationList.revoke(UUID.randomUUID().toString(), now + (long) i * 900_000 / revokedSessions);
+        }
+        return revocationList;
+    }
+
+    @Benchmark
+    public boolean isRevokedActive() {
+        return revocationList.isRevoked(activeSession);
+    }
+
+    @Benchmark
+    public boolean isRevokedRevoked() {
+        return revocationList.isRevoked(revokedSession);
+    }
+}
@@ -0,0 +1,48 @@
+package io.bootify.my_app.service;
+
+import io.bootify.my_app.dto.ProductDTO;
+import io.bootify.my_app.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+
+/**
+ * Entity/DTO copies done by ProductMapper on every read and write.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ProductMappingBenchmark {
+
+    private Product product;
+    private ProductDTO productDTO;
+
+    @Setup
+    public void setup() {
+        product = new Product();
+        product.setId(42L);
+        product.setName("MacBook Pro");
+        product.setDescription("13-inch, M2 chip, 8GB RAM, 256GB SSD");
+        product.setPrice(new BigDecimal("1299.99"));
+        product.setStockQuantity(10);
+        product.setActive(true);
+        productDTO = ProductMapper.toDTO(product);
+    }
+
+    @Benchmark
+    public ProductDTO mapToDTO() {
+        return ProductMapper.toDTO(product);
+    }
+
+    @Benchmark
+    public Product mapToEntity() {
+        return ProductMapper.toEntity(productDTO);
+    }
+}
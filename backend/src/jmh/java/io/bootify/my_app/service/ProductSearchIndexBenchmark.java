@@ -0,0 +1,74 @@
+package io.bootify.my_app.service;
+
+import io.bootify.my_app.dto.ProductDTO;
+import io.bootify.my_app.dto.SearchHit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typeahead and search latency of ProductSearchIndex over a catalog shaped like the load-test fixtures.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductSearchIndexBenchmark {
+
+    private static final String[] ADJECTIVES = {
+        "Compact", "Wireless", "Smart", "Portable", "Ultra", "Classic", "Premium", "Rugged", "Slim", "Pro"
+    };
+    private static final String[] NOUNS = {
+        "Laptop", "Phone", "Tablet", "Watch", "Headphones", "Speaker", "Camera", "Monitor", "Keyboard", "Charger"
+    };
+    private static final String[] FEATURES = {
+        "aluminium", "bluetooth", "waterproof", "noise", "cancelling", "retina", "graphite", "magnetic",
+        "ergonomic", "backlit", "titanium", "ceramic", "wireless", "charging", "leather", "carbon"
+    };
+
+    @Param({"1000000"})
+    private int size;
+
+    @Param({"wireless lap", "headph", "keybord", "smart 12345", "smart 12", "titanium backlit"})
+    private String query;
+
+    private ProductSearchIndex index;
+
+    @Setup
+    public void setup() {
+        index = new ProductSearchIndex();
+        Random random = new Random(42);
+        for (int i = 1; i <= size; i++) {
+            ProductDTO product = new ProductDTO();
+            product.setId((long) i);
+            product.setName(ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                    + NOUNS[random.nextInt(NOUNS.length)] + " " + i);
+            product.setDescription(FEATURES[random.nextInt(FEATURES.length)] + " "
+                    + FEATURES[random.nextInt(FEATURES.length)] + " " + FEATURES[random.nextInt(FEATURES.length)]);
+            product.setPrice(BigDecimal.valueOf(500 + random.nextInt(300_000), 2));
+            product.setStockQuantity(random.nextInt(1000));
+            product.setActive(random.nextInt(10) != 0);
+            index.index(product);
+        }
+    }
+
+    @Benchmark
+    public List<SearchHit> search() {
+        return index.search(query, 10, true);
+    }
+}
@@ -0,0 +1,201 @@
+package io.bootify.my_app.loadtest;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.bootify.my_app.MyAppApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntFunction;
+
+/**
+ * Scripted HTTP load test with HdrHistogram latency reporting per endpoint.
+ * <p>
+ * Without {@code --target} the application is started in-process on in-memory H2 and seeded
+ * through DataInitializer; with {@code --target=http://host:port} an already running instance is used
+ * (it must have been started with matching {@code app.seed.*} settings).
+ * <p>
+ * Options, all {@code --name=value}: target, products (10000), users (100), concurrency (64),
+ * duration in seconds per scenario (30), scenarios (login,read,write; also mixed), results (target/loadtest/results).
+ * Any other option is handed to the in-process application as a Spring property.
+ */
+public final class LoadTest {
+
+    private static final Set<String> HARNESS_OPTIONS = Set.of(
+            "target", "products", "users", "concurrency", "duration", "scenarios", "results");
+
+    private final LoadTestClient client;
+    private final int users;
+    private final String adminToken;
+    private final String userToken;
+    private final List<Long> productIds;
+
+    private LoadTest(LoadTestClient client, int users) throws Exception {
+        this.client = client;
+        this.users = users;
+        this.adminToken = client.login("admin", "admin");
+        this.userToken = users > 0 ? client.login("loadtest-user-1", "loadtest") : client.login("user", "user");
+        this.productIds = client.productIds(adminToken, 10_000);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int products = Integer.parseInt(options.getOrDefault("products", "10000"));
+        int users = Integer.parseInt(options.getOrDefault("users", "100"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "64"));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30")));
+        Path resultsDir = Path.of(options.getOrDefault("results", "target/loadtest/results"));
+
+        ConfigurableApplicationContext app = null;
+        String target = options.get("target");
+        if (target == null) {
+            // A devtools restart would re-enter main() with the Spring arguments below
+            System.setProperty("spring.devtools.restart.enabled", "false");
+            app = SpringApplication.run(MyAppApplication.class, applicationArgs(options, products, users));
+            target = "http://localhost:" + ((WebServerApplicationContext) app).getWebServer().getPort();
+            System.out.printf("In-process application, virtual threads %s%n",
+                    app.getEnvironment().getProperty("spring.threads.virtual.enabled", "false"));
+        }
+
+        System.out.printf("Load test against %s (products=%d, users=%d)%n", target, products, users);
+        try (LoadTestClient client = new LoadTestClient(target)) {
+            LoadTest loadTest = new LoadTest(client, users);
+            for (String scenario : options.getOrDefault("scenarios", "login,read,write").split(",")) {
+                client.reset();
+                loadTest.run(scenario.trim(), concurrency, duration);
+                client.report(scenario.trim(), concurrency, duration, resultsDir, System.out);
+            }
+        } finally {
+            if (app != null) {
+                app.close();
+            }
+        }
+    }
+
+    private void run(String scenario, int concurrency, Duration duration) throws InterruptedException {
+        // Each worker runs one step type; "mixed" splits the workers between a login storm and reads
+        IntFunction<Step> stepForWorker = switch (scenario) {
+            case "login" -> worker -> this::loginStep;
+            case "read" -> worker -> this::readStep;
+            case "write" -> worker -> this::writeStep;
+            case "mixed" -> worker -> worker % 2 == 0 ? this::loginStep : this::readStep;
+            default -> throw new IllegalArgumentException("Unknown scenario: " + scenario);
+        };
+
+        long deadline = System.nanoTime() + duration.toNanos();
+        // Virtual threads let one process hold thousands of concurrent connections
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                Step step = stepForWorker.apply(i);
+                workers.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        step.run(random);
+                    }
+                    return null;
+                });
+            }
+        }
+    }
+
+    // Login storm: every call pays the full BCrypt verification
+    private void loginStep(ThreadLocalRandom random) throws Exception {
+        String username = users > 0 ? "loadtest-user-" + (random.nextInt(users) + 1) : "user";
+        String password = users > 0 ? "loadtest" : "user";
+        client.send("POST /api/auth/login", client.post("/api/auth/login", null,
+                client.objectMapper().writeValueAsString(Map.of("username", username, "password", password))));
+    }
+
+    // Read-heavy dashboard traffic: single products, keyset pages and the full active list
+    private void readStep(ThreadLocalRandom random) throws Exception {
+        int dice = random.nextInt(100);
+        if (dice < 45) {
+            client.send("GET /api/products/{id}", client.get("/api/products/" + randomId(random), userToken));
+        } else if (dice < 90) {
+            String sort = List.of("id", "name", "price", "stock").get(random.nextInt(4));
+            client.send("GET /api/products?limit", client.get(
+                    "/api/products?limit=50&activeOnly=true&sort=" + sort, userToken));
+        } else {
+            client.send("GET /api/products", client.get("/api/products?activeOnly=true", userToken));
+        }
+    }
+
+    // Admin writes: absolute stock changes and full read-modify-write updates
+    private void writeStep(ThreadLocalRandom random) throws Exception {
+        long id = randomId(random);
+        if (random.nextBoolean()) {
+            client.send("PATCH /api/products/{id}/stock", client.patch(
+                    "/api/products/" + id + "/stock?quantity=" + random.nextInt(1000), adminToken));
+            return;
+        }
+
+        HttpResponse<byte[]> current = client.send("GET /api/products/{id}",
+                client.get("/api/products/" + id, adminToken));
+        if (current == null || current.statusCode() != 200) {
+            return;
+        }
+        ObjectNode product = (ObjectNode) client.objectMapper().readTree(current.body());
+        product.put("price", BigDecimal.valueOf(500 + random.nextInt(300_000), 2));
+        client.send("PUT /api/products/{id}/update", client.put(
+                "/api/products/" + id + "/update", adminToken, product.toString()));
+    }
+
+    private long randomId(ThreadLocalRandom random) {
+        return productIds.get(random.nextInt(productIds.size()));
+    }
+
+    // Options the harness does not know are passed on to the in-process application,
+    // e.g. --spring.threads.virtual.enabled=true
+    private static String[] applicationArgs(Map<String, String> options, int products, int users) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("management.server.port", "0");
+        properties.put("app.seed.products", String.valueOf(products));
+        properties.put("app.seed.users", String.valueOf(users));
+        properties.put("app.access-log.enabled", "false");
+        properties.put("spring.jpa.show-sql", "false");
+        // Every virtual user shares one address; measure verification admission, not the per-IP limit
+        properties.put("app.login.rate-limit.enabled", "false");
+        properties.put("debug", "false");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.io.bootify.my_app", "INFO");
+        properties.put("logging.level.io.bootify.my_app.config", "INFO");
+        properties.put("logging.level.org.springframework.web", "WARN");
+        properties.put("logging.level.org.springframework.web.servlet", "WARN");
+        options.forEach((name, value) -> {
+            if (!HARNESS_OPTIONS.contains(name)) {
+                properties.put(name, value);
+            }
+        });
+        return properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        return options;
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        void run(ThreadLocalRandom random) throws Exception;
+    }
+}
@@ -0,0 +1,170 @@
+package io.bootify.my_app.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HTTP client that records the latency of every call in a per-endpoint HdrHistogram.
+ */
+final class LoadTestClient implements AutoCloseable {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final String baseUrl;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+
+    LoadTestClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    ObjectMapper objectMapper() {
+        return objectMapper;
+    }
+
+    String login(String username, String password) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = send("POST /api/auth/login", post("/api/auth/login", null,
+                objectMapper.writeValueAsString(Map.of("username", username, "password", password))));
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed for " + username + ": " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    // Walks the keyset-paged listing so scenarios only address ids that exist
+    List<Long> productIds(String token, int max) throws IOException, InterruptedException {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            String path = "/api/products?limit=500" + (cursor != null ? "&cursor=" + cursor : "");
+            JsonNode page = objectMapper.readTree(send("setup", get(path, token)).body());
+            page.get("items").forEach(item -> ids.add(item.get("id").asLong()));
+            cursor = page.hasNonNull("next") ? page.get("next").asText() : null;
+        } while (cursor != null && ids.size() < max);
+        return ids;
+    }
+
+    HttpRequest get(String path, String token) {
+        return request(path, token).GET().build();
+    }
+
+    HttpRequest post(String path, String token, String json) {
+        return request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    HttpRequest put(String path, String token, String json) {
+        return request(path, token)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    HttpRequest patch(String path, String token) {
+        return request(path, token)
+                .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    /**
+     * Sends the request and records its latency under the given endpoint name.
+     * Transport failures are counted as errors and reported with status 0.
+     */
+    HttpResponse<byte[]> send(String endpoint, HttpRequest request) throws InterruptedException {
+        EndpointStats endpointStats = stats.computeIfAbsent(endpoint, name -> new EndpointStats());
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            endpointStats.record(start, response.statusCode() >= 400);
+            return response;
+        } catch (IOException e) {
+            endpointStats.record(start, true);
+            return null;
+        }
+    }
+
+    void reset() {
+        stats.clear();
+    }
+
+    void report(String scenario, int concurrency, Duration duration, Path resultsDir, PrintStream out)
+            throws IOException {
+        out.printf("%n== %s: %d workers, %d s ==%n", scenario, concurrency, duration.toSeconds());
+        out.printf("%-32s %9s %9s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        Files.createDirectories(resultsDir);
+        for (Map.Entry<String, EndpointStats> entry : new TreeMap<>(stats).entrySet()) {
+            if (entry.getKey().equals("setup")) {
+                continue;
+            }
+            Histogram histogram = entry.getValue().histogram;
+            long count = histogram.getTotalCount();
+            out.printf("%-32s %9d %9.1f %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey(), count, count / (double) duration.toSeconds(), entry.getValue().errors.sum(),
+                    millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                    histogram.getMaxValue() / 1000.0);
+
+            String fileName = scenario + "-" + entry.getKey().replaceAll("[^A-Za-z0-9]+", "_") + ".hgrm";
+            try (PrintStream file = new PrintStream(resultsDir.resolve(fileName).toFile())) {
+                histogram.outputPercentileDistribution(file, 1000.0);
+            }
+        }
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    @Override
+    public void close() {
+        httpClient.close();
+    }
+
+    private static final class EndpointStats {
+        private final Histogram histogram = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+
+        void record(long startNanos, boolean error) {
+            long micros = (System.nanoTime() - startNanos) / 1000;
+            histogram.recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+            if (error) {
+                errors.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package io.bootify.my_app.config;
+
+/**
+ * Raw facts captured on the request thread. Formatting and redaction happen on the writer thread.
+ */
+record AccessLogEvent(
+        long timestamp,
+        String method,
+        String uri,
+        String query,
+        int status,
+        long durationMicros,
+        String remoteAddress,
+        String[] headers,
+        String contentType,
+        byte[] payload,
+        boolean payloadTruncated,
+        String responseContentType,
+        byte[] responsePayload,
+        boolean responsePayloadTruncated) {
+}
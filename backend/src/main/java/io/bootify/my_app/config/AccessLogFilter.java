@@ -0,0 +1,161 @@
+package io.bootify.my_app.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Samples requests per route and hands a compact event to {@link AccessLogWriter}.
+ * Only sampled requests pay for payload capture; server errors are always logged. With
+ * app.access-log.include-response, sampled requests also log the first bytes of the response body.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private AccessLogWriter accessLogWriter;
+
+    @Value("${app.access-log.enabled:true}")
+    private boolean enabled;
+
+    // Comma separated "pattern=rate" pairs, first matching pattern wins
+    @Value("${app.access-log.sampling:/api/**=1.0}")
+    private String sampling;
+
+    @Value("${app.access-log.default-rate:0}")
+    private double defaultRate;
+
+    @Value("${app.access-log.max-payload-bytes:2048}")
+    private int maxPayloadBytes;
+
+    @Value("${app.access-log.include-response:false}")
+    private boolean includeResponse;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<String> patterns = new ArrayList<>();
+    private final List<Double> rates = new ArrayList<>();
+
+    @PostConstruct
+    public void init() {
+        for (String rule : sampling.split(",")) {
+            String[] parts = rule.trim().split("=");
+            if (parts.length == 2) {
+                patterns.add(parts[0].trim());
+                rates.add(Double.parseDouble(parts[1].trim()));
+            }
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!enabled || !accessLogWriter.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean sampled = isSampled(request.getRequestURI());
+        HttpServletRequest loggedRequest = sampled
+            ? new CappedRequestWrapper(request, maxPayloadBytes)
+            : request;
+        HttpServletResponse loggedResponse = sampled && includeResponse
+            ? new AccessLogResponseWrapper(response, maxPayloadBytes)
+            : response;
+        boolean failed = true;
+        try {
+            filterChain.doFilter(loggedRequest, loggedResponse);
+            failed = false;
+        } finally {
+            int status = failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+            if (sampled || status >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR) {
+                accessLogWriter.offer(createEvent(loggedRequest, loggedResponse, status, start, sampled));
+            }
+        }
+    }
+
+    private boolean isSampled(String uri) {
+        double rate = defaultRate;
+        for (int i = 0; i < patterns.size(); i++) {
+            if (pathMatcher.match(patterns.get(i), uri)) {
+                rate = rates.get(i);
+                break;
+            }
+        }
+        return rate >= 1.0 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private AccessLogEvent createEvent(HttpServletRequest request, HttpServletResponse response,
+                                       int status, long start, boolean sampled) {
+        String[] headers = null;
+        byte[] payload = null;
+        boolean truncated = false;
+        byte[] responsePayload = null;
+        boolean responseTruncated = false;
+        if (sampled) {
+            List<String> pairs = new ArrayList<>();
+            Enumeration<String> names = request.getHeaderNames();
+            while (names.hasMoreElements()) {
+                String name = names.nextElement();
+                pairs.add(name);
+                pairs.add(request.getHeader(name));
+            }
+            headers = pairs.toArray(new String[0]);
+            if (request instanceof CappedRequestWrapper wrapper) {
+                payload = wrapper.getContentAsByteArray();
+                truncated = wrapper.truncated;
+            }
+            if (response instanceof AccessLogResponseWrapper wrapper) {
+                responsePayload = wrapper.getCopy();
+                responseTruncated = wrapper.isTruncated();
+            }
+        }
+
+        return new AccessLogEvent(
+                System.currentTimeMillis(),
+                request.getMethod(),
+                request.getRequestURI(),
+                request.getQueryString(),
+                status,
+                (System.nanoTime() - start) / 1000,
+                request.getRemoteAddr(),
+                headers,
+                request.getContentType(),
+                payload,
+                truncated,
+                response.getContentType(),
+                responsePayload,
+                responseTruncated);
+    }
+
+    // Marks the payload truncated once the body read goes past the cache, also for chunked bodies
+    private static final class CappedRequestWrapper extends ContentCachingRequestWrapper {
+        private boolean truncated;
+
+        CappedRequestWrapper(HttpServletRequest request, int limit) {
+            super(request, limit);
+        }
+
+        @Override
+        protected void handleContentOverflow(int contentCacheLimit) {
+            truncated = true;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package io.bootify.my_app.config;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Passes the response body through as it is written and keeps a copy of its first bytes for the access
+ * log. Nothing is buffered in front of the client, so streamed and event-stream responses are unaffected.
+ * Bodies written through getWriter() are not copied.
+ */
+final class AccessLogResponseWrapper extends HttpServletResponseWrapper {
+
+    private final int limit;
+    private final ByteArrayOutputStream copy;
+    private long written;
+    private ServletOutputStream outputStream;
+
+    AccessLogResponseWrapper(HttpServletResponse response, int limit) {
+        super(response);
+        this.limit = limit;
+        this.copy = new ByteArrayOutputStream(Math.min(limit, 256));
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new CopyingOutputStream(super.getOutputStream());
+        }
+        return outputStream;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        discardCopy();
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        discardCopy();
+    }
+
+    byte[] getCopy() {
+        return copy.toByteArray();
+    }
+
+    // From the bytes actually written, not from a declared Content-Length
+    boolean isTruncated() {
+        return written > limit;
+    }
+
+    private void discardCopy() {
+        copy.reset();
+        written = 0;
+    }
+
+    private void record(byte[] bytes, int offset, int length) {
+        int copied = (int) Math.max(0, Math.min(length, limit - written));
+        copy.write(bytes, offset, copied);
+        written += length;
+    }
+
+    private final class CopyingOutputStream extends ServletOutputStream {
+        private final ServletOutputStream delegate;
+
+        CopyingOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            if (written < limit) {
+                copy.write(b);
+            }
+            written++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            delegate.write(bytes, offset, length);
+            record(bytes, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package io.bootify.my_app.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
+
+/**
+ * Background writer for access log events. Request threads only enqueue into a bounded
+ * lock-free buffer; when the buffer is full the event is dropped and counted, never waited on.
+ */
+@Component
+public class AccessLogWriter {
+    private static final Logger logger = LoggerFactory.getLogger(AccessLogWriter.class);
+    private static final Logger accessLogger = LoggerFactory.getLogger("io.bootify.my_app.access");
+
+    private static final Set<String> REDACTED_HEADERS = Set.of(
+            "authorization", "proxy-authorization", "cookie", "set-cookie");
+    private static final Pattern SECRET_JSON_FIELDS = Pattern.compile(
+            "(\"(?:password|token|refreshToken)\"\\s*:\\s*)\"(?:[^\"\\\\]|\\\\.)*\"");
+    private static final Pattern SECRET_FORM_FIELDS = Pattern.compile(
+            "((?:^|&)(?:password|token|refreshToken)=)[^&]*");
+    private static final String REDACTED = "[REDACTED]";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.access-log.buffer-size:8192}")
+    private int bufferSize;
+
+    private AccessLogRingBuffer<AccessLogEvent> buffer;
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean running;
+    private Thread writerThread;
+
+    @PostConstruct
+    public void start() {
+        buffer = new AccessLogRingBuffer<>(bufferSize);
+        running = true;
+        writerThread = new Thread(this::drain, "access-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writerThread);
+        writerThread.join(TimeUnit.SECONDS.toMillis(2));
+    }
+
+    public boolean isEnabled() {
+        return accessLogger.isInfoEnabled();
+    }
+
+    public void offer(AccessLogEvent event) {
+        if (!buffer.offer(event)) {
+            dropped.increment();
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            AccessLogEvent event = buffer.poll();
+            if (event != null) {
+                write(event);
+                continue;
+            }
+
+            long droppedEvents = dropped.sumThenReset();
+            if (droppedEvents > 0) {
+                logger.warn("Access log buffer full, dropped {} events", droppedEvents);
+            }
+            if (!running) {
+                return;
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+
+    private void write(AccessLogEvent event) {
+        try {
+            accessLogger.info(toJson(event));
+        } catch (Exception e) {
+            logger.warn("Cannot write access log event", e);
+        }
+    }
+
+    private String toJson(AccessLogEvent event) throws IOException {
+        StringWriter out = new StringWriter(256);
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.writeStartObject();
+            json.writeStringField("ts", Instant.ofEpochMilli(event.timestamp()).toString());
+            json.writeStringField("method", event.method());
+            json.writeStringField("uri", event.uri());
+            if (event.query() != null) {
+                json.writeStringField("query", redactForm(event.query()));
+            }
+            json.writeNumberField("status", event.status());
+            json.writeNumberField("durationMs", event.durationMicros() / 1000.0);
+            json.writeStringField("remote", event.remoteAddress());
+
+            if (event.headers() != null) {
+                json.writeObjectFieldStart("headers");
+                String[] headers = event.headers();
+                for (int i = 0; i < headers.length; i += 2) {
+                    boolean secret = REDACTED_HEADERS.contains(headers[i].toLowerCase());
+                    json.writeStringField(headers[i], secret ? REDACTED : headers[i + 1]);
+                }
+                json.writeEndObject();
+            }
+
+            if (event.payload() != null && event.payload().length > 0) {
+                String payload = new String(event.payload(), StandardCharsets.UTF_8);
+                boolean form = event.contentType() != null
+                        && event.contentType().startsWith("application/x-www-form-urlencoded");
+                json.writeStringField("contentType", event.contentType());
+                json.writeStringField("payload", form ? redactForm(payload) : redactJson(payload));
+                json.writeBooleanField("payloadTruncated", event.payloadTruncated());
+            }
+            if (event.responsePayload() != null && event.responsePayload().length > 0) {
+                json.writeObjectFieldStart("response");
+                json.writeStringField("contentType", event.responseContentType());
+                // Smile and CBOR bodies are binary and left out
+                if (isText(event.responseContentType())) {
+                    json.writeStringField("payload",
+                            redactJson(new String(event.responsePayload(), StandardCharsets.UTF_8)));
+                    json.writeBooleanField("payloadTruncated", event.responsePayloadTruncated());
+                }
+                json.writeEndObject();
+            }
+            json.writeEndObject();
+        }
+        return out.toString();
+    }
+
+    private static boolean isText(String contentType) {
+        return contentType != null && (contentType.startsWith("text/") || contentType.contains("json"));
+    }
+
+    private String redactJson(String payload) {
+        return SECRET_JSON_FIELDS.matcher(payload).replaceAll("$1\"" + REDACTED + "\"");
+    }
+
+    private String redactForm(String payload) {
+        return SECRET_FORM_FIELDS.matcher(payload).replaceAll("$1" + REDACTED);
+    }
+}
@@ -0,0 +1,69 @@
+package io.bootify.my_app.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.bootify.my_app.service.ProductCache;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Writes a {@link ProductCache.Entry}: as JSON its stored bytes, shared by every response for the entry,
+ * and as Smile or CBOR its value through the mapper of that format. Write-only.
+ */
+final class CachedEntryHttpMessageConverter extends AbstractHttpMessageConverter<ProductCache.Entry<?>> {
+    private final Map<MediaType, ObjectMapper> mappers;
+    private final int sizedBodyLimit;
+
+    CachedEntryHttpMessageConverter(Map<MediaType, ObjectMapper> mappers, int sizedBodyLimit) {
+        super(mappers.keySet().toArray(MediaType[]::new));
+        this.mappers = mappers;
+        this.sizedBodyLimit = sizedBodyLimit;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ProductCache.Entry.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected ProductCache.Entry<?> readInternal(Class<? extends ProductCache.Entry<?>> clazz,
+            HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Cache entries are write-only", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(ProductCache.Entry<?> entry, MediaType contentType) {
+        return isJson(contentType) ? (long) entry.json().length : null;
+    }
+
+    @Override
+    protected void writeInternal(ProductCache.Entry<?> entry, HttpOutputMessage outputMessage) throws IOException {
+        MediaType contentType = outputMessage.getHeaders().getContentType();
+        if (isJson(contentType)) {
+            outputMessage.getBody().write(entry.json());
+            return;
+        }
+        ObjectMapper mapper = mappers.entrySet().stream()
+                .filter(format -> format.getKey().isCompatibleWith(contentType))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElseThrow();
+        SizedOutputMessage message = new SizedOutputMessage(outputMessage, sizedBodyLimit);
+        mapper.writeValue(message.getBody(), entry.value());
+        message.complete();
+    }
+
+    private static boolean isJson(MediaType contentType) {
+        return contentType == null || MediaType.APPLICATION_JSON.isCompatibleWith(contentType);
+    }
+}
@@ -0,0 +1,82 @@
+package io.bootify.my_app.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate second-level cache for users and roles, held on the heap by Caffeine through JCache. Every
+ * region is created here with a size bound; a cached entity or collection without a region below fails
+ * the startup (hibernate.javax.cache.missing_cache_strategy=fail).
+ * <p>
+ * Hibernate updates or evicts cached entries on every write through JPA, and a cached query result is
+ * discarded once one of its tables has been written. Writes outside this process, by another instance or
+ * over SQL, are only seen after the entries expire (app.entity-cache.ttl-seconds).
+ */
+@Configuration
+public class EntityCacheConfig {
+
+    public static final String ROLES = "roles";
+    public static final String USERS = "users";
+    public static final String USER_ROLES = "users.roles";
+    public static final String ROLES_BY_NAME = "roles.by-name";
+    public static final String USERS_BY_USERNAME = "users.by-username";
+
+    @Value("${app.entity-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${app.entity-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(MeterRegistry meterRegistry) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+        for (String region : new String[] {ROLES, USERS, USER_ROLES, ROLES_BY_NAME, USERS_BY_USERNAME,
+                RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME}) {
+            createCache(cacheManager, meterRegistry, region, bounded());
+        }
+        // Last write per table, which query results are checked against; it must not lose entries
+        createCache(cacheManager, meterRegistry, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                configuration());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+    }
+
+    private CaffeineConfiguration<Object, Object> bounded() {
+        CaffeineConfiguration<Object, Object> configuration = configuration();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+        return configuration;
+    }
+
+    private static CaffeineConfiguration<Object, Object> configuration() {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // Hibernate stores disassembled state, so the JCache default of copying every value is not needed
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+
+    private static void createCache(CacheManager cacheManager, MeterRegistry meterRegistry, String name,
+            CaffeineConfiguration<Object, Object> configuration) {
+        JCacheMetrics.monitor(meterRegistry, cacheManager.createCache(name, configuration));
+    }
+}
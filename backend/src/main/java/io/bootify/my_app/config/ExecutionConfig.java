@@ -0,0 +1,15 @@
+package io.bootify.my_app.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Async and @Scheduled work. With spring.threads.virtual.enabled=true Spring Boot backs
+ * Tomcat's request executor, the @Async executor and the task scheduler with virtual threads.
+ */
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class ExecutionConfig {
+}
@@ -2,6 +2,8 @@ package io.bootify.my_app.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import io.bootify.my_app.dto.ProductDTO;
+import io.bootify.my_app.dto.ProductJsonWriter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
@@ -11,8 +13,12 @@ public class JacksonConfig {
 
     @Bean
     public ObjectMapper objectMapper() {
-        return Jackson2ObjectMapperBuilder.json()
-                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
-                .build();
+        return configure(Jackson2ObjectMapperBuilder.json()).build();
     }
-}
\ No newline at end of file
+
+    // Shared by the JSON mapper and the binary (Smile, CBOR) mappers, so every format has the same shape
+    static Jackson2ObjectMapperBuilder configure(Jackson2ObjectMapperBuilder builder) {
+        return builder.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .serializerByType(ProductDTO.class, new ProductJsonWriter.Serializer());
+    }
+}
@@ -0,0 +1,58 @@
+package io.bootify.my_app.config;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.bootify.my_app.dto.ProductListing;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Writes a {@link ProductListing} with the generator of the negotiated format, so a streamed listing is
+ * offered as JSON, Smile and CBOR like any other body. Write-only.
+ */
+final class ProductListingHttpMessageConverter extends AbstractHttpMessageConverter<ProductListing> {
+    private final Map<MediaType, JsonFactory> factories;
+    private final int sizedBodyLimit;
+
+    ProductListingHttpMessageConverter(Map<MediaType, JsonFactory> factories, int sizedBodyLimit) {
+        super(factories.keySet().toArray(MediaType[]::new));
+        this.factories = factories;
+        this.sizedBodyLimit = sizedBodyLimit;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ProductListing.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected ProductListing readInternal(Class<? extends ProductListing> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Product listings are write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(ProductListing listing, HttpOutputMessage outputMessage) throws IOException {
+        MediaType contentType = outputMessage.getHeaders().getContentType();
+        JsonFactory factory = factories.get(getSupportedMediaTypes().stream()
+                .filter(mediaType -> mediaType.isCompatibleWith(contentType))
+                .findFirst()
+                .orElse(getSupportedMediaTypes().get(0)));
+        SizedOutputMessage message = new SizedOutputMessage(outputMessage, sizedBodyLimit);
+        try (JsonGenerator generator = factory.createGenerator(message.getBody(), JsonEncoding.UTF8)) {
+            listing.writeTo(generator);
+        }
+        message.complete();
+    }
+}
@@ -0,0 +1,55 @@
+package io.bootify.my_app.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Jackson converter for one format (JSON, Smile or CBOR, by its mapper) that writes through a
+ * {@link SizedOutputMessage}, so bodies within the limit are sent with a Content-Length.
+ */
+final class SizedJackson2HttpMessageConverter extends AbstractJackson2HttpMessageConverter {
+    private final int sizedBodyLimit;
+    private final List<MediaType> problemDetailMediaTypes;
+
+    private SizedJackson2HttpMessageConverter(ObjectMapper objectMapper, int sizedBodyLimit,
+            List<MediaType> problemDetailMediaTypes, MediaType... supportedMediaTypes) {
+        super(objectMapper, supportedMediaTypes);
+        this.sizedBodyLimit = sizedBodyLimit;
+        this.problemDetailMediaTypes = problemDetailMediaTypes;
+    }
+
+    // Same media types as MappingJackson2HttpMessageConverter, including application/problem+json
+    static SizedJackson2HttpMessageConverter json(ObjectMapper objectMapper, int sizedBodyLimit) {
+        return new SizedJackson2HttpMessageConverter(objectMapper, sizedBodyLimit,
+                List.of(MediaType.APPLICATION_PROBLEM_JSON),
+                MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+    }
+
+    static SizedJackson2HttpMessageConverter smile(ObjectMapper objectMapper, int sizedBodyLimit) {
+        return new SizedJackson2HttpMessageConverter(objectMapper, sizedBodyLimit, List.of(),
+                new MediaType("application", "x-jackson-smile"));
+    }
+
+    static SizedJackson2HttpMessageConverter cbor(ObjectMapper objectMapper, int sizedBodyLimit) {
+        return new SizedJackson2HttpMessageConverter(objectMapper, sizedBodyLimit, List.of(),
+                MediaType.APPLICATION_CBOR);
+    }
+
+    @Override
+    protected List<MediaType> getMediaTypesForProblemDetail() {
+        return problemDetailMediaTypes;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        SizedOutputMessage message = new SizedOutputMessage(outputMessage, sizedBodyLimit);
+        super.writeInternal(object, type, message);
+        message.complete();
+    }
+}
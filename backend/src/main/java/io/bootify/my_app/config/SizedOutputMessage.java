@@ -0,0 +1,75 @@
+package io.bootify.my_app.config;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Holds the start of a message body in memory, so a body that ends up no larger than the limit is sent
+ * with a Content-Length. The Jackson converters flush the servlet stream, which commits the response
+ * before Tomcat knows its size, and Tomcat compresses every response of unknown size regardless of
+ * server.compression.min-response-size. A body that outgrows the limit is streamed as before.
+ */
+final class SizedOutputMessage implements HttpOutputMessage {
+    private final HttpOutputMessage target;
+    private final int limit;
+    private final ByteArrayOutputStream buffer;
+    // The target body, once the limit was passed
+    private OutputStream streaming;
+
+    private final OutputStream body = new OutputStream() {
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (streaming == null && buffer.size() + length > limit) {
+                streaming = target.getBody();
+                buffer.writeTo(streaming);
+            }
+            if (streaming != null) {
+                streaming.write(bytes, offset, length);
+            } else {
+                buffer.write(bytes, offset, length);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (streaming != null) {
+                streaming.flush();
+            }
+        }
+    };
+
+    SizedOutputMessage(HttpOutputMessage target, int limit) {
+        this.target = target;
+        this.limit = limit;
+        this.buffer = new ByteArrayOutputStream(Math.min(limit, 512));
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return target.getHeaders();
+    }
+
+    @Override
+    public OutputStream getBody() {
+        return body;
+    }
+
+    /**
+     * Sends a body that stayed within the limit, with its length; the headers go out with the first body write.
+     */
+    void complete() throws IOException {
+        if (streaming == null) {
+            target.getHeaders().setContentLength(buffer.size());
+            buffer.writeTo(target.getBody());
+        }
+    }
+}
@@ -1,26 +1,62 @@
 package io.bootify.my_app.config;
 
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageConverter;
-import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Configuration
 public class WebMvcConfig implements WebMvcConfigurer {
     
     private final ObjectMapper objectMapper;
+    // Bodies up to the compression threshold are sized before sending, so Tomcat leaves them uncompressed
+    private final int sizedBodyLimit;
 
-    public WebMvcConfig(ObjectMapper objectMapper) {
+    public WebMvcConfig(ObjectMapper objectMapper,
+            @Value("${server.compression.min-response-size:2KB}") DataSize compressionMinResponseSize) {
         this.objectMapper = objectMapper;
+        this.sizedBodyLimit = (int) compressionMinResponseSize.toBytes();
     }
 
+    // Boot registers its default converters ahead of anything configureMessageConverters adds, so the Jackson
+    // ones are swapped for these in place
     @Override
-    public void configureMessageConverters(List<HttpMessageConverter<?>> converters) {
-        MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter();
-        converter.setObjectMapper(objectMapper);
-        converters.add(converter);
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        int position = converters.size();
+        for (int i = converters.size() - 1; i >= 0; i--) {
+            if (converters.get(i) instanceof AbstractJackson2HttpMessageConverter) {
+                converters.remove(i);
+                position = i;
+            }
+        }
+        ObjectMapper smileMapper = JacksonConfig.configure(Jackson2ObjectMapperBuilder.smile()).build();
+        ObjectMapper cborMapper = JacksonConfig.configure(Jackson2ObjectMapperBuilder.cbor()).build();
+        List<HttpMessageConverter<?>> jackson = new ArrayList<>();
+        // Cached product entries and listings streamed from the database, in the same formats; JSON first, as below
+        Map<MediaType, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put(MediaType.APPLICATION_JSON, objectMapper);
+        mappers.put(new MediaType("application", "x-jackson-smile"), smileMapper);
+        mappers.put(MediaType.APPLICATION_CBOR, cborMapper);
+        Map<MediaType, JsonFactory> listingFactories = new LinkedHashMap<>();
+        mappers.forEach((mediaType, mapper) -> listingFactories.put(mediaType, mapper.getFactory()));
+        jackson.add(new CachedEntryHttpMessageConverter(mappers, sizedBodyLimit));
+        jackson.add(new ProductListingHttpMessageConverter(listingFactories, sizedBodyLimit));
+        jackson.add(SizedJackson2HttpMessageConverter.json(objectMapper, sizedBodyLimit));
+        // Binary forms for consumers that ask for them (Accept: application/x-jackson-smile or application/cbor);
+        // JSON stays first, so it remains the default for */* and browsers
+        jackson.add(SizedJackson2HttpMessageConverter.smile(smileMapper, sizedBodyLimit));
+        jackson.add(SizedJackson2HttpMessageConverter.cbor(cborMapper, sizedBodyLimit));
+        converters.addAll(position, jackson);
     }
-}
\ No newline at end of file
+}
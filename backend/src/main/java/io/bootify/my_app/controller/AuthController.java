@@ -2,14 +2,23 @@ package io.bootify.my_app.controller;
 
 import io.bootify.my_app.dto.JwtResponse;
 import io.bootify.my_app.dto.LoginRequest;
-import io.bootify.my_app.model.Role;
-import io.bootify.my_app.model.User;
-import io.bootify.my_app.repos.RoleRepository;
-import io.bootify.my_app.repos.UserRepository;
+import io.bootify.my_app.dto.RefreshRequest;
+import io.bootify.my_app.security.JwtKeyRing;
 import io.bootify.my_app.security.JwtUtils;
-import jakarta.annotation.PostConstruct;
+import io.bootify.my_app.security.LoginRateLimiter;
+import io.bootify.my_app.security.LoginThrottledException;
+import io.bootify.my_app.security.PasswordVerificationExecutor;
+import io.bootify.my_app.security.PrincipalCache;
+import io.bootify.my_app.security.RefreshSessionStore;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -18,12 +27,15 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @RestController
@@ -35,41 +47,39 @@ public class AuthController {
     private AuthenticationManager authenticationManager;
 
     @Autowired
-    private UserRepository userRepository;
+    private JwtUtils jwtUtils;
 
     @Autowired
-    private RoleRepository roleRepository;
+    private JwtKeyRing jwtKeyRing;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private LoginRateLimiter loginRateLimiter;
 
     @Autowired
-    private JwtUtils jwtUtils;
+    private PasswordVerificationExecutor passwordVerificationExecutor;
 
-    @PostConstruct
-    public void init() {
-        // Create roles if they don't exist
-        if (roleRepository.count() == 0) {
-            roleRepository.save(new Role("ADMIN"));
-            roleRepository.save(new Role("USER"));
-        }
+    @Autowired
+    private RefreshSessionStore refreshSessionStore;
 
-        // Create default admin and user if they don't exist
-        if (!userRepository.existsByUsername("admin")) {
-            User admin = new User("admin", passwordEncoder.encode("admin"));
-            admin.addRole(roleRepository.findByName("ADMIN").get());
-            userRepository.save(admin);
-        }
+    @Autowired
+    private PrincipalCache principalCache;
 
-        if (!userRepository.existsByUsername("user")) {
-            User user = new User("user", passwordEncoder.encode("user"));
-            user.addRole(roleRepository.findByName("USER").get());
-            userRepository.save(user);
-        }
-    }
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<?> authenticateUser(@RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+        // End-to-end login latency by outcome; the password check alone is auth.verification.duration
+        Timer.Sample sample = Timer.start(meterRegistry);
+        ResponseEntity<?> response = login(loginRequest, request);
+        sample.stop(meterRegistry.timer("auth.login", "outcome", loginOutcome(response.getStatusCode())));
+        return response;
+    }
+
+    private ResponseEntity<?> login(LoginRequest loginRequest, HttpServletRequest request) {
         try {
             // Validate request
             if (loginRequest.getUsername() == null || loginRequest.getUsername().trim().isEmpty() ||
@@ -77,34 +87,120 @@ public class AuthController {
                 return createErrorResponse(HttpStatus.BAD_REQUEST, "Username and password are required");
             }
 
-            // Attempt authentication
-            Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                    loginRequest.getUsername(),
-                    loginRequest.getPassword()
+            // Admission control before any password work
+            loginRateLimiter.acquire(loginRequest.getUsername(), request.getRemoteAddr());
+
+            // Attempt authentication on the isolated verification pool
+            Authentication authentication = passwordVerificationExecutor.verify(() ->
+                authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                        loginRequest.getUsername(),
+                        loginRequest.getPassword()
+                    )
                 )
             );
 
+            loginRateLimiter.recordSuccess(loginRequest.getUsername(), request.getRemoteAddr());
             SecurityContextHolder.getContext().setAuthentication(authentication);
-            String jwt = jwtUtils.generateJwtToken(authentication);
+            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+            RefreshSessionStore.Session session = refreshSessionStore.create(userDetails.getUsername());
 
-            org.springframework.security.core.userdetails.UserDetails userDetails = 
-                (org.springframework.security.core.userdetails.UserDetails) authentication.getPrincipal();
-            List<String> roles = userDetails.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .collect(Collectors.toList());
-
-            return ResponseEntity.ok(new JwtResponse(jwt, userDetails.getUsername(), roles));
+            return ResponseEntity.ok(tokenResponse(userDetails, session));
 
+        } catch (LoginThrottledException e) {
+            return ResponseEntity.status(e.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(errorBody(e.getStatus(), e.getMessage()));
         } catch (BadCredentialsException e) {
+            loginRateLimiter.recordFailure(loginRequest.getUsername(), request.getRemoteAddr());
             return createErrorResponse(HttpStatus.UNAUTHORIZED, "Invalid username or password");
         } catch (AuthenticationException e) {
+            loginRateLimiter.recordFailure(loginRequest.getUsername(), request.getRemoteAddr());
             return createErrorResponse(HttpStatus.UNAUTHORIZED, "Authentication failed: " + e.getMessage());
         } catch (Exception e) {
             return createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "An error occurred during authentication");
         }
     }
 
+    private static String loginOutcome(HttpStatusCode status) {
+        return switch (status.value()) {
+            case 200 -> "success";
+            case 400 -> "invalid_request";
+            case 401 -> "failure";
+            case 429, 503 -> "throttled";
+            default -> "error";
+        };
+    }
+
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh token; the old one stops working.
+     * Roles are read again, so a role change reaches the session at the next refresh at the latest.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody RefreshRequest refreshRequest) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        ResponseEntity<?> response = rotate(refreshRequest);
+        sample.stop(meterRegistry.timer("auth.refresh", "outcome", response.getStatusCode().is2xxSuccessful()
+                ? "success" : "failure"));
+        return response;
+    }
+
+    private ResponseEntity<?> rotate(RefreshRequest refreshRequest) {
+        if (refreshRequest.getRefreshToken() == null || refreshRequest.getRefreshToken().isBlank()) {
+            return createErrorResponse(HttpStatus.BAD_REQUEST, "Refresh token is required");
+        }
+        RefreshSessionStore.Session session = refreshSessionStore.rotate(refreshRequest.getRefreshToken());
+        if (session == null) {
+            return createErrorResponse(HttpStatus.UNAUTHORIZED, "Invalid or expired refresh token");
+        }
+        try {
+            UserDetails userDetails = principalCache.get(session.username(), userDetailsService::loadUserByUsername);
+            return ResponseEntity.ok(tokenResponse(userDetails, session));
+        } catch (UsernameNotFoundException e) {
+            refreshSessionStore.revoke(session.id());
+            return createErrorResponse(HttpStatus.UNAUTHORIZED, "Invalid or expired refresh token");
+        }
+    }
+
+    /**
+     * Ends the session of the bearer token: its refresh token stops working and its access tokens are
+     * rejected from now on.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        Claims claims = authorization != null && authorization.startsWith("Bearer ")
+            ? jwtUtils.parseClaims(authorization.substring(7))
+            : null;
+        if (claims == null) {
+            return createErrorResponse(HttpStatus.UNAUTHORIZED, "A valid access token is required");
+        }
+        String sessionId = claims.get(JwtUtils.SESSION_CLAIM, String.class);
+        if (sessionId != null) {
+            refreshSessionStore.revoke(sessionId);
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    private JwtResponse tokenResponse(UserDetails userDetails, RefreshSessionStore.Session session) {
+        String jwt = jwtUtils.generateJwtToken(userDetails, session.id(), session.expiresAt());
+        List<String> roles = userDetails.getAuthorities().stream()
+            .map(GrantedAuthority::getAuthority)
+            .collect(Collectors.toList());
+        return new JwtResponse(jwt, jwtUtils.getJwtExpirationMs() / 1000, session.refreshToken(),
+            userDetails.getUsername(), roles);
+    }
+
+    /**
+     * Public keys for verifying access tokens, so other services check them locally. A new key is published
+     * before it signs anything, so caching the set for a few minutes is safe.
+     */
+    @GetMapping("/jwks")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic())
+            .body(jwtKeyRing.jwkSet());
+    }
+
     @GetMapping("/validate")
     public ResponseEntity<?> validateToken() {
         try {
@@ -117,10 +213,14 @@ public class AuthController {
     }
 
     private ResponseEntity<?> createErrorResponse(HttpStatus status, String message) {
+        return ResponseEntity.status(status).body(errorBody(status, message));
+    }
+
+    private Map<String, Object> errorBody(HttpStatus status, String message) {
         Map<String, Object> response = new HashMap<>();
         response.put("status", status.value());
         response.put("error", status.getReasonPhrase());
         response.put("message", message);
-        return ResponseEntity.status(status).body(response);
+        return response;
     }
 }
\ No newline at end of file
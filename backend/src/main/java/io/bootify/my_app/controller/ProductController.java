@@ -1,17 +1,59 @@
 package io.bootify.my_app.controller;
 
+import io.bootify.my_app.dto.BulkItemResult;
+import io.bootify.my_app.dto.BulkResponse;
+import io.bootify.my_app.dto.InventoryStats;
 import io.bootify.my_app.dto.ProductDTO;
+import io.bootify.my_app.dto.ProductListing;
+import io.bootify.my_app.dto.ProductPageResponse;
+import io.bootify.my_app.dto.SearchHit;
+import io.bootify.my_app.events.ProductChangedEvent;
 import io.bootify.my_app.model.Product;
+import io.bootify.my_app.repos.ProductListingQuery;
 import io.bootify.my_app.repos.ProductRepository;
+import io.bootify.my_app.service.InventoryCounters;
+import io.bootify.my_app.service.ProductCache;
+import io.bootify.my_app.service.ProductMapper;
+import io.bootify.my_app.service.ProductSearchIndex;
+import io.bootify.my_app.service.StockDeltaAccumulator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PersistenceContext;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.CacheControl;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @RestController
@@ -19,106 +61,423 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class ProductController {
 
+    // Sort keys accepted by the paged listing, mapped to entity properties
+    private static final Map<String, String> SORT_PROPERTIES = Map.of(
+            "id", "id",
+            "name", "name",
+            "price", "price",
+            "stock", "stockQuantity");
+
     @Autowired
     private ProductRepository productRepository;
 
-    // Map Entity to DTO
-    private ProductDTO mapToDTO(Product product) {
-        ProductDTO dto = new ProductDTO();
-        dto.setId(product.getId());
-        dto.setName(product.getName());
-        dto.setDescription(product.getDescription());
-        dto.setPrice(product.getPrice());
-        dto.setStockQuantity(product.getStockQuantity());
-        dto.setActive(product.getActive());
-        return dto;
-    }
-
-    // Map DTO to Entity
-    private Product mapToEntity(ProductDTO dto) {
-        Product product = new Product();
-        product.setId(dto.getId());
-        product.setName(dto.getName());
-        product.setDescription(dto.getDescription());
-        product.setPrice(dto.getPrice());
-        product.setStockQuantity(dto.getStockQuantity());
-        product.setActive(dto.getActive());
-        return product;
-    }
+    @Autowired
+    private ProductListingQuery productListingQuery;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private StockDeltaAccumulator stockDeltaAccumulator;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private InventoryCounters inventoryCounters;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private Validator validator;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.products.page.max-size:500}")
+    private int maxPageSize;
+
+    @Value("${app.products.search.max-results:100}")
+    private int maxSearchResults;
+
+    @Value("${app.products.bulk.max-items:100000}")
+    private int bulkMaxItems;
+
+    // Items per flush/clear; keeps the persistence context small during large imports
+    @Value("${app.products.bulk.chunk-size:1000}")
+    private int bulkChunkSize;
 
     @GetMapping
-    public ResponseEntity<List<ProductDTO>> getAllProducts(
+    public ResponseEntity<?> getAllProducts(
             @RequestParam(required = false) Boolean activeOnly) {
-        List<Product> products = activeOnly != null && activeOnly 
-            ? productRepository.findByActiveTrue()
-            : productRepository.findAll();
-            
-        List<ProductDTO> productDTOs = products.stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
-                
-        return ResponseEntity.ok(productDTOs);
+        if (activeOnly != null && activeOnly) {
+            // The dashboard list: served from cache, 304 when If-None-Match matches
+            ProductCache.Entry<List<ProductDTO>> cached = productCache.getActiveProducts(() ->
+                    productRepository.findActiveDtos());
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache())
+                    .eTag(cached.etag())
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(cached);
+        }
+
+        // Every product, written while the rows are read
+        ProductListing listing = productListingQuery.all(false);
+        return ResponseEntity.ok(listing);
+    }
+
+    @GetMapping(params = "limit")
+    public ResponseEntity<ProductPageResponse> getProductsPage(
+            @RequestParam(required = false) Boolean activeOnly,
+            @RequestParam int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "asc") String direction) {
+        String property = SORT_PROPERTIES.get(sort);
+        if (property == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported sort: " + sort);
+        }
+        Sort.Direction sortDirection = Sort.Direction.fromOptionalString(direction)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported direction: " + direction));
+
+        Sort order = Sort.by(sortDirection, property);
+        if (!"id".equals(property)) {
+            order = order.and(Sort.by(sortDirection, "id"));
+        }
+        ScrollPosition position = cursor == null
+            ? ScrollPosition.keyset()
+            : decodeCursor(cursor, sort, sortDirection);
+        Limit pageLimit = Limit.of(Math.min(Math.max(limit, 1), maxPageSize));
+
+        Window<ProductDTO> window = findPage(activeOnly != null && activeOnly, position, order, pageLimit);
+
+        List<ProductDTO> products = window.getContent();
+        String next = window.hasNext() && !products.isEmpty()
+            ? encodeCursor(sort, sortDirection, products.get(products.size() - 1))
+            : null;
+
+        return ResponseEntity.ok(new ProductPageResponse(products, next));
+    }
+
+    // Ranked full-text search over name and description; the last word also matches as a prefix
+    @GetMapping("/search")
+    public ResponseEntity<List<SearchHit>> searchProducts(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "true") boolean activeOnly) {
+        if (!productSearchIndex.isReady()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Search index is still building");
+        }
+        return ResponseEntity.ok(productSearchIndex.search(q, Math.min(Math.max(limit, 1), maxSearchResults), activeOnly));
+    }
+
+    // Dashboard KPIs from incrementally maintained counters; no table scan per request
+    @GetMapping("/stats")
+    public ResponseEntity<InventoryStats> getInventoryStats() {
+        if (!inventoryCounters.isReady()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Inventory statistics are still loading");
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(inventoryCounters.getStats());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDTO> getProduct(@PathVariable Long id) {
-        return productRepository.findById(id)
-                .map(this::mapToDTO)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<ProductCache.Entry<ProductDTO>> getProduct(@PathVariable Long id) {
+        ProductCache.Entry<ProductDTO> cached = productCache.getProduct(id, key ->
+                productRepository.findDtoById(key).orElse(null));
+        if (cached == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(cached.etag())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(cached);
     }
 
     @PostMapping("/create")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ProductDTO> createProduct(@Valid @RequestBody ProductDTO productDTO) {
         productDTO.setId(null); // Ensure we're creating a new product
-        Product product = mapToEntity(productDTO);
-        Product savedProduct = productRepository.save(product);
+        productDTO.setVersion(null);
+        Product product = ProductMapper.toEntity(productDTO);
+        ProductDTO created = ProductMapper.toDTO(productRepository.save(product));
+        eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.CREATED, null, created));
         return ResponseEntity
                 .status(HttpStatus.CREATED)
-                .body(mapToDTO(savedProduct));
+                .body(created);
     }
 
     @PutMapping("/{id}/update")
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional
     public ResponseEntity<ProductDTO> updateProduct(
             @PathVariable Long id,
             @Valid @RequestBody ProductDTO productDTO) {
         
-        if (!productRepository.existsById(id)) {
+        Optional<Product> existing = productRepository.findById(id);
+        if (existing.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
+        Product product = existing.get();
+        checkVersion(productDTO, product);
+        ProductDTO before = ProductMapper.toDTO(product);
 
-        productDTO.setId(id);
-        Product product = mapToEntity(productDTO);
-        Product updatedProduct = productRepository.save(product);
+        // Flush now so a concurrent update surfaces here as a version conflict
+        ProductMapper.copyToEntity(productDTO, product);
+        ProductDTO updated = ProductMapper.toDTO(productRepository.saveAndFlush(product));
+        eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.UPDATED, before, updated));
         
-        return ResponseEntity.ok(mapToDTO(updatedProduct));
+        return ResponseEntity.ok(updated);
     }
 
     @DeleteMapping("/{id}/delete")
     @PreAuthorize("hasRole('ADMIN')")
     @Transactional
     public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
-        if (!productRepository.existsById(id)) {
+        Optional<Product> existing = productRepository.findById(id);
+        if (existing.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
+        ProductDTO before = ProductMapper.toDTO(existing.get());
+        ProductDTO after = ProductMapper.toDTO(existing.get());
+        after.setActive(false);
+        after.setVersion(after.getVersion() == null ? null : after.getVersion() + 1);
 
         productRepository.softDelete(id);
+        eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.DELETED, before, after));
         return ResponseEntity.noContent().build();
     }
 
+    // Either sets the stock (quantity) or adjusts it atomically (delta, e.g. 5 or -3, never below zero).
+    // With coalesce=true and coalescing enabled the delta is queued and applied in the next batch (202).
     @PatchMapping("/{id}/stock")
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional
     public ResponseEntity<ProductDTO> updateStock(
             @PathVariable Long id,
-            @RequestParam Integer quantity) {
+            @RequestParam(required = false) Integer quantity,
+            @RequestParam(required = false) Integer delta,
+            @RequestParam(defaultValue = "false") boolean coalesce) {
+        if ((quantity == null) == (delta == null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Exactly one of quantity or delta is required");
+        }
+        if (delta != null) {
+            return adjustStock(id, delta, coalesce);
+        }
+        if (quantity < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Stock quantity must be greater than or equal to 0");
+        }
         
         return productRepository.findById(id)
                 .map(product -> {
+                    ProductDTO before = ProductMapper.toDTO(product);
                     product.setStockQuantity(quantity);
-                    return ResponseEntity.ok(mapToDTO(productRepository.save(product)));
+                    ProductDTO after = ProductMapper.toDTO(productRepository.saveAndFlush(product));
+                    eventPublisher.publishEvent(
+                            new ProductChangedEvent(ProductChangedEvent.Type.STOCK_CHANGED, before, after));
+                    return ResponseEntity.ok(after);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<ProductDTO> adjustStock(Long id, int delta, boolean coalesce) {
+        if (coalesce && stockDeltaAccumulator.isEnabled()) {
+            if (productCache.getProduct(id, key -> productRepository.findDtoById(key).orElse(null)) == null) {
+                return ResponseEntity.notFound().build();
+            }
+            stockDeltaAccumulator.add(id, delta);
+            return ResponseEntity.accepted().build();
+        }
+
+        if (productRepository.adjustStock(id, delta) == 0) {
+            if (!productRepository.existsById(id)) {
+                return ResponseEntity.notFound().build();
+            }
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Insufficient stock");
+        }
+        ProductDTO after = productRepository.findDtoById(id).orElseThrow();
+        ProductDTO before = ProductMapper.beforeStockDelta(after, delta);
+        eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.STOCK_CHANGED, before, after));
+        return ResponseEntity.ok(after);
+    }
+
+    @ExceptionHandler({ObjectOptimisticLockingFailureException.class, OptimisticLockException.class})
+    public void handleVersionConflict(HttpServletResponse response) throws IOException {
+        response.sendError(HttpStatus.CONFLICT.value(), "Product was modified concurrently, reload and retry");
+    }
+
+    private void checkVersion(ProductDTO productDTO, Product product) {
+        if (productDTO.getVersion() != null && !productDTO.getVersion().equals(product.getVersion())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Product was modified, current version is " + product.getVersion());
+        }
+    }
+
+    @PostMapping("/bulk/create")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Transactional
+    public ResponseEntity<BulkResponse> bulkCreateProducts(@RequestBody List<ProductDTO> productDTOs) {
+        checkBulkSize(productDTOs);
+        List<BulkItemResult> results = new ArrayList<>(productDTOs.size());
+        int succeeded = 0;
+        for (int i = 0; i < productDTOs.size(); i++) {
+            ProductDTO productDTO = productDTOs.get(i);
+            String error = productDTO == null ? "Product is required" : violations(validator.validate(productDTO));
+            if (error != null) {
+                results.add(new BulkItemResult(i, null, error));
+                continue;
+            }
+
+            productDTO.setId(null);
+            productDTO.setVersion(null);
+            ProductDTO created = ProductMapper.toDTO(productRepository.save(ProductMapper.toEntity(productDTO)));
+            eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.CREATED, null, created));
+            results.add(new BulkItemResult(i, created.getId(), null));
+            if (++succeeded % bulkChunkSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        return ResponseEntity.ok(new BulkResponse(succeeded, productDTOs.size() - succeeded, results));
+    }
+
+    @PutMapping("/bulk/update")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Transactional
+    public ResponseEntity<BulkResponse> bulkUpdateProducts(@RequestBody List<ProductDTO> productDTOs) {
+        return ResponseEntity.ok(bulkApply(productDTOs,
+                productDTO -> productDTO.getId() == null
+                        ? "Product id is required"
+                        : violations(validator.validate(productDTO)),
+                ProductChangedEvent.Type.UPDATED,
+                ProductMapper::copyToEntity));
+    }
+
+    @PatchMapping("/bulk/stock")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Transactional
+    public ResponseEntity<BulkResponse> bulkUpdateStock(@RequestBody List<ProductDTO> productDTOs) {
+        return ResponseEntity.ok(bulkApply(productDTOs,
+                productDTO -> productDTO.getId() == null
+                        ? "Product id is required"
+                        : violations(validator.validateProperty(productDTO, "stockQuantity")),
+                ProductChangedEvent.Type.STOCK_CHANGED,
+                (productDTO, product) -> product.setStockQuantity(productDTO.getStockQuantity())));
+    }
+
+    // Applies changes to existing products chunk by chunk: one IN query loads each chunk,
+    // dirty checking turns the changes into batched UPDATEs at flush
+    private BulkResponse bulkApply(List<ProductDTO> productDTOs, Function<ProductDTO, String> validation,
+            ProductChangedEvent.Type type, BiConsumer<ProductDTO, Product> change) {
+        checkBulkSize(productDTOs);
+        List<BulkItemResult> results = new ArrayList<>(productDTOs.size());
+        int succeeded = 0;
+        for (int start = 0; start < productDTOs.size(); start += bulkChunkSize) {
+            List<ProductDTO> chunk = productDTOs.subList(start, Math.min(start + bulkChunkSize, productDTOs.size()));
+            List<Long> ids = chunk.stream()
+                    .filter(productDTO -> productDTO != null && productDTO.getId() != null)
+                    .map(ProductDTO::getId)
+                    .toList();
+            Map<Long, Product> products = productRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+            for (int i = 0; i < chunk.size(); i++) {
+                int index = start + i;
+                ProductDTO productDTO = chunk.get(i);
+                String error = productDTO == null ? "Product is required" : validation.apply(productDTO);
+                Product product = error == null ? products.get(productDTO.getId()) : null;
+                if (error == null && product == null) {
+                    error = "Product not found";
+                } else if (error == null && productDTO.getVersion() != null
+                        && !productDTO.getVersion().equals(product.getVersion())) {
+                    error = "Version conflict, current version is " + product.getVersion();
+                }
+                if (error != null) {
+                    results.add(new BulkItemResult(index, productDTO != null ? productDTO.getId() : null, error));
+                    continue;
+                }
+
+                ProductDTO before = ProductMapper.toDTO(product);
+                change.accept(productDTO, product);
+                eventPublisher.publishEvent(new ProductChangedEvent(type, before, ProductMapper.toDTO(product)));
+                results.add(new BulkItemResult(index, product.getId(), null));
+                succeeded++;
+            }
+            entityManager.flush();
+            entityManager.clear();
+        }
+        return new BulkResponse(succeeded, productDTOs.size() - succeeded, results);
+    }
+
+    private void checkBulkSize(Collection<?> items) {
+        if (items.size() > bulkMaxItems) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "At most " + bulkMaxItems + " products per bulk request");
+        }
+    }
+
+    private static String violations(Set<ConstraintViolation<ProductDTO>> violations) {
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    // Cursor format (base64url): sort:direction:id:value, value being the last sort key seen
+    // Name-sorted continuation pages go through the variants that bound name, see ProductRepository
+    private Window<ProductDTO> findPage(boolean activeOnly, ScrollPosition position, Sort order, Limit limit) {
+        if (position instanceof KeysetScrollPosition keyset && keyset.getKeys().get("name") instanceof String name) {
+            boolean ascending = order.getOrderFor("name").isAscending();
+            if (activeOnly) {
+                return ascending
+                    ? productRepository.findByActiveTrueAndNameGreaterThanEqual(name, position, order, limit, ProductDTO.class)
+                    : productRepository.findByActiveTrueAndNameLessThanEqual(name, position, order, limit, ProductDTO.class);
+            }
+            return ascending
+                ? productRepository.findByNameGreaterThanEqual(name, position, order, limit, ProductDTO.class)
+                : productRepository.findByNameLessThanEqual(name, position, order, limit, ProductDTO.class);
+        }
+        return activeOnly
+            ? productRepository.findByActiveTrue(position, order, limit, ProductDTO.class)
+            : productRepository.findBy(position, order, limit, ProductDTO.class);
+    }
+
+    private String encodeCursor(String sort, Sort.Direction direction, ProductDTO last) {
+        String value = switch (sort) {
+            case "name" -> last.getName();
+            case "price" -> last.getPrice().toPlainString();
+            case "stock" -> last.getStockQuantity().toString();
+            default -> "";
+        };
+        String raw = sort + ":" + direction.name() + ":" + last.getId() + ":" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private ScrollPosition decodeCursor(String cursor, String sort, Sort.Direction direction) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 4);
+            if (parts.length != 4 || !parts[0].equals(sort) || !parts[1].equals(direction.name())) {
+                throw new IllegalArgumentException("Cursor does not match the requested sort");
+            }
+
+            Map<String, Object> keys = new LinkedHashMap<>();
+            switch (sort) {
+                case "name" -> keys.put("name", parts[3]);
+                case "price" -> keys.put("price", new BigDecimal(parts[3]));
+                case "stock" -> keys.put("stockQuantity", Integer.valueOf(parts[3]));
+                default -> { }
+            }
+            keys.put("id", Long.valueOf(parts[2]));
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package io.bootify.my_app.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.bootify.my_app.dto.ProductDTO;
+import io.bootify.my_app.dto.ProductJsonWriter;
+import io.bootify.my_app.repos.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+@RestController
+@RequestMapping("/api/products/export")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class ProductExportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) Boolean activeOnly) {
+        boolean csv = switch (format) {
+            case "ndjson" -> false;
+            case "csv" -> true;
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported format: " + format);
+        };
+        boolean onlyActive = activeOnly != null && activeOnly;
+
+        // Rows are written as they are fetched; nothing is collected, so heap stays flat
+        StreamingResponseBody body = out -> {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            transaction.executeWithoutResult(status -> {
+                try (Stream<ProductDTO> products = onlyActive
+                        ? productRepository.streamActiveDtos()
+                        : productRepository.streamAllDtos()) {
+                    if (csv) {
+                        writeCsv(products, out);
+                    } else {
+                        writeNdjson(products, out);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        };
+
+        return ResponseEntity.ok()
+                .contentType(csv ? CSV : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"products." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
+    }
+
+    // Each line is a product exactly as /api/products sends it, version included
+    private void writeNdjson(Stream<ProductDTO> products, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        ProductJsonWriter productWriter = new ProductJsonWriter();
+        for (ProductDTO product : (Iterable<ProductDTO>) products::iterator) {
+            productWriter.write(generator, product);
+            generator.writeRaw('\n');
+        }
+        generator.close();
+    }
+
+    private void writeCsv(Stream<ProductDTO> products, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write("id,name,description,price,stockQuantity,active,version\n");
+        for (ProductDTO product : (Iterable<ProductDTO>) products::iterator) {
+            writer.write(product.getId().toString());
+            writer.write(',');
+            writer.write(escapeCsv(product.getName()));
+            writer.write(',');
+            writer.write(escapeCsv(product.getDescription()));
+            writer.write(',');
+            writer.write(product.getPrice().toPlainString());
+            writer.write(',');
+            writer.write(product.getStockQuantity().toString());
+            writer.write(',');
+            writer.write(product.getActive().toString());
+            writer.write(',');
+            if (product.getVersion() != null) {
+                writer.write(product.getVersion().toString());
+            }
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    private String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
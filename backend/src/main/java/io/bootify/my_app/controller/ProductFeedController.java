@@ -0,0 +1,33 @@
+package io.bootify.my_app.controller;
+
+import io.bootify.my_app.service.ProductChangeFeed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/products/events")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class ProductFeedController {
+
+    @Autowired
+    private ProductChangeFeed productChangeFeed;
+
+    // Change stream for open admin screens, instead of re-polling the product list
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        if (!productChangeFeed.hasCapacity()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many change feed subscribers");
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .header("X-Accel-Buffering", "no") // nginx would otherwise buffer the stream
+                .body(productChangeFeed.subscribe(lastEventId));
+    }
+}
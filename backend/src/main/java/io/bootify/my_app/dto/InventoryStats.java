@@ -0,0 +1,91 @@
+package io.bootify.my_app.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public class InventoryStats {
+    private long totalProducts;
+    private long activeProducts;
+    private long totalStockUnits;
+    private BigDecimal inventoryValue;
+    private long lowStockProducts;
+    private long outOfStockProducts;
+    private int lowStockThreshold;
+    private Instant reconciledAt;
+
+    public InventoryStats(long totalProducts, long activeProducts, long totalStockUnits, BigDecimal inventoryValue,
+                          long lowStockProducts, long outOfStockProducts, int lowStockThreshold, Instant reconciledAt) {
+        this.totalProducts = totalProducts;
+        this.activeProducts = activeProducts;
+        this.totalStockUnits = totalStockUnits;
+        this.inventoryValue = inventoryValue;
+        this.lowStockProducts = lowStockProducts;
+        this.outOfStockProducts = outOfStockProducts;
+        this.lowStockThreshold = lowStockThreshold;
+        this.reconciledAt = reconciledAt;
+    }
+
+    public long getTotalProducts() {
+        return totalProducts;
+    }
+
+    public void setTotalProducts(long totalProducts) {
+        this.totalProducts = totalProducts;
+    }
+
+    public long getActiveProducts() {
+        return activeProducts;
+    }
+
+    public void setActiveProducts(long activeProducts) {
+        this.activeProducts = activeProducts;
+    }
+
+    public long getTotalStockUnits() {
+        return totalStockUnits;
+    }
+
+    public void setTotalStockUnits(long totalStockUnits) {
+        this.totalStockUnits = totalStockUnits;
+    }
+
+    public BigDecimal getInventoryValue() {
+        return inventoryValue;
+    }
+
+    public void setInventoryValue(BigDecimal inventoryValue) {
+        this.inventoryValue = inventoryValue;
+    }
+
+    public long getLowStockProducts() {
+        return lowStockProducts;
+    }
+
+    public void setLowStockProducts(long lowStockProducts) {
+        this.lowStockProducts = lowStockProducts;
+    }
+
+    public long getOutOfStockProducts() {
+        return outOfStockProducts;
+    }
+
+    public void setOutOfStockProducts(long outOfStockProducts) {
+        this.outOfStockProducts = outOfStockProducts;
+    }
+
+    public int getLowStockThreshold() {
+        return lowStockThreshold;
+    }
+
+    public void setLowStockThreshold(int lowStockThreshold) {
+        this.lowStockThreshold = lowStockThreshold;
+    }
+
+    public Instant getReconciledAt() {
+        return reconciledAt;
+    }
+
+    public void setReconciledAt(Instant reconciledAt) {
+        this.reconciledAt = reconciledAt;
+    }
+}
@@ -5,11 +5,16 @@ import java.util.List;
 public class JwtResponse {
     private String token;
     private String type = "Bearer";
+    // Seconds until the access token expires; a new pair is obtained with the refresh token before then
+    private long expiresIn;
+    private String refreshToken;
     private String username;
     private List<String> roles;
 
-    public JwtResponse(String token, String username, List<String> roles) {
+    public JwtResponse(String token, long expiresIn, String refreshToken, String username, List<String> roles) {
         this.token = token;
+        this.expiresIn = expiresIn;
+        this.refreshToken = refreshToken;
         this.username = username;
         this.roles = roles;
     }
@@ -30,6 +35,22 @@ public class JwtResponse {
         this.type = type;
     }
 
+    public long getExpiresIn() {
+        return expiresIn;
+    }
+
+    public void setExpiresIn(long expiresIn) {
+        this.expiresIn = expiresIn;
+    }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
     public String getUsername() {
         return username;
     }
@@ -0,0 +1,39 @@
+package io.bootify.my_app.dto;
+
+import io.bootify.my_app.events.ProductChangedEvent;
+
+public class ProductChange {
+    private ProductChangedEvent.Type type;
+    private Long productId;
+    private ProductDTO product;
+
+    public ProductChange(ProductChangedEvent.Type type, Long productId, ProductDTO product) {
+        this.type = type;
+        this.productId = productId;
+        this.product = product;
+    }
+
+    public ProductChangedEvent.Type getType() {
+        return type;
+    }
+
+    public void setType(ProductChangedEvent.Type type) {
+        this.type = type;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public ProductDTO getProduct() {
+        return product;
+    }
+
+    public void setProduct(ProductDTO product) {
+        this.product = product;
+    }
+}
@@ -4,6 +4,8 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Size;
+import org.springframework.data.annotation.PersistenceCreator;
+
 import java.math.BigDecimal;
 
 public class ProductDTO {
@@ -27,6 +29,25 @@ public class ProductDTO {
 
     private Boolean active = true;
 
+    // Optimistic lock version; send back the value you read to have concurrent edits rejected with 409
+    private Long version;
+
+    public ProductDTO() {
+    }
+
+    // Target of the repository's JPQL constructor expressions and class-based projections
+    @PersistenceCreator
+    public ProductDTO(Long id, String name, String description, BigDecimal price,
+                      Integer stockQuantity, Boolean active, Long version) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.price = price;
+        this.stockQuantity = stockQuantity;
+        this.active = active;
+        this.version = version;
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -75,4 +96,12 @@ public class ProductDTO {
     public void setActive(Boolean active) {
         this.active = active;
     }
-}
\ No newline at end of file
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,166 @@
+package io.bootify.my_app.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.json.JsonGeneratorImpl;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Writes products field by field, with the names and order databind derives from ProductDTO, so the output
+ * is the same in every format. Listings read with JDBC are written straight from the result set, without a
+ * DTO per row; {@link Serializer} does the same for DTOs wherever the ObjectMapper meets one.
+ * <p>
+ * Prices go out without BigDecimal.toString(): as JSON text a price of up to 15 digits is formatted
+ * into a scratch buffer held by the writer, so use one writer per document and thread.
+ */
+public final class ProductJsonWriter {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString DESCRIPTION = new SerializedString("description");
+    private static final SerializableString PRICE = new SerializedString("price");
+    private static final SerializableString STOCK_QUANTITY = new SerializedString("stockQuantity");
+    private static final SerializableString ACTIVE = new SerializedString("active");
+    private static final SerializableString VERSION = new SerializedString("version");
+
+    // Up to 15 digits, any scale up to 15, and the value fits a double exactly enough to round back
+    private static final int MAX_FORMATTED_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = new double[MAX_FORMATTED_DIGITS + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    // Sign, point, up to 15 digits and the zeros of "0.00000..."
+    private final char[] scratch = new char[2 * MAX_FORMATTED_DIGITS + 2];
+
+    public void write(JsonGenerator generator, ProductDTO product) throws IOException {
+        generator.writeStartObject();
+        writeNumber(generator, ID, product.getId());
+        writeString(generator, NAME, product.getName());
+        writeString(generator, DESCRIPTION, product.getDescription());
+        generator.writeFieldName(PRICE);
+        writePrice(generator, product.getPrice());
+        generator.writeFieldName(STOCK_QUANTITY);
+        if (product.getStockQuantity() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(product.getStockQuantity());
+        }
+        generator.writeFieldName(ACTIVE);
+        if (product.getActive() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeBoolean(product.getActive());
+        }
+        writeNumber(generator, VERSION, product.getVersion());
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes the current row of a result set with the columns id, name, description, price, stock_quantity,
+     * active and version, in that order.
+     */
+    public void write(JsonGenerator generator, ResultSet row) throws IOException, SQLException {
+        generator.writeStartObject();
+        generator.writeFieldName(ID);
+        generator.writeNumber(row.getLong(1));
+        writeString(generator, NAME, row.getString(2));
+        writeString(generator, DESCRIPTION, row.getString(3));
+        generator.writeFieldName(PRICE);
+        writePrice(generator, row.getBigDecimal(4));
+        generator.writeFieldName(STOCK_QUANTITY);
+        generator.writeNumber(row.getInt(5));
+        generator.writeFieldName(ACTIVE);
+        generator.writeBoolean(row.getBoolean(6));
+        generator.writeFieldName(VERSION);
+        long version = row.getLong(7);
+        if (row.wasNull()) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(version);
+        }
+        generator.writeEndObject();
+    }
+
+    private void writePrice(JsonGenerator generator, BigDecimal price) throws IOException {
+        if (price == null) {
+            generator.writeNull();
+            return;
+        }
+        int scale = price.scale();
+        int precision = price.precision();
+        // Smile and CBOR write the unscaled value and scale natively; toString() would use an exponent below 1E-6
+        if (!(generator instanceof JsonGeneratorImpl) || scale < 0 || scale > MAX_FORMATTED_DIGITS
+                || precision > MAX_FORMATTED_DIGITS || precision - scale < -5) {
+            generator.writeNumber(price);
+            return;
+        }
+        // unscaledValue() would allocate; below 10^15 the double quotient rounds back to it exactly
+        long unscaled = Math.round(price.doubleValue() * POWERS_OF_TEN[scale]);
+        long remaining = Math.abs(unscaled);
+        int position = scratch.length;
+        int digits = 0;
+        do {
+            scratch[--position] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+            if (++digits == scale) {
+                scratch[--position] = '.';
+            }
+        } while (remaining != 0 || digits <= scale);
+        if (unscaled < 0) {
+            scratch[--position] = '-';
+        }
+        generator.writeNumber(scratch, position, scratch.length - position);
+    }
+
+    private static void writeNumber(JsonGenerator generator, SerializableString name, Long value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value);
+        }
+    }
+
+    private static void writeString(JsonGenerator generator, SerializableString name, String value)
+            throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(value);
+        }
+    }
+
+    /**
+     * ProductDTO serializer for the ObjectMapper; one writer is shared by all products of a document.
+     */
+    public static final class Serializer extends StdSerializer<ProductDTO> {
+
+        public Serializer() {
+            super(ProductDTO.class);
+        }
+
+        @Override
+        public void serialize(ProductDTO product, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            ProductJsonWriter writer = (ProductJsonWriter) provider.getAttribute(ProductJsonWriter.class);
+            if (writer == null) {
+                writer = new ProductJsonWriter();
+                provider.setAttribute(ProductJsonWriter.class, writer);
+            }
+            writer.write(generator, product);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package io.bootify.my_app.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+
+/**
+ * A product list that writes itself into the response as it is read, instead of being collected first.
+ * Written by the listing converter registered in WebMvcConfig, as JSON, Smile or CBOR.
+ */
+@FunctionalInterface
+public interface ProductListing {
+
+    void writeTo(JsonGenerator generator) throws IOException;
+}
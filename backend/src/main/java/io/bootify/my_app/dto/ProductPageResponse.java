@@ -0,0 +1,29 @@
+package io.bootify.my_app.dto;
+
+import java.util.List;
+
+public class ProductPageResponse {
+    private List<ProductDTO> items;
+    private String next;
+
+    public ProductPageResponse(List<ProductDTO> items, String next) {
+        this.items = items;
+        this.next = next;
+    }
+
+    public List<ProductDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ProductDTO> items) {
+        this.items = items;
+    }
+
+    public String getNext() {
+        return next;
+    }
+
+    public void setNext(String next) {
+        this.next = next;
+    }
+}
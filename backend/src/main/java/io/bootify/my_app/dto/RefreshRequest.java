@@ -0,0 +1,23 @@
+package io.bootify.my_app.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public class RefreshRequest {
+    public RefreshRequest() {
+        // Default constructor for Jackson
+    }
+
+    public RefreshRequest(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+    @NotBlank
+    private String refreshToken;
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+}
@@ -0,0 +1,9 @@
+package io.bootify.my_app.events;
+
+/**
+ * Published once the startup data (roles, default users, demo and fixture products) is in place. With
+ * {@code app.seed.async=true} this happens on a background thread after the application is already
+ * serving, so views built from a full scan of the tables wait for this event rather than for startup.
+ */
+public record DataInitializedEvent() {
+}
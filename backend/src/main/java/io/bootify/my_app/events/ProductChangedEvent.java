@@ -0,0 +1,22 @@
+package io.bootify.my_app.events;
+
+import io.bootify.my_app.dto.ProductDTO;
+
+/**
+ * Published whenever a product is written. {@code before} is null for creations; {@code after} is the
+ * stored state, so a soft-deleted product arrives with {@code active=false}. Listeners that must only
+ * see committed data use {@code @TransactionalEventListener(fallbackExecution = true)}.
+ */
+public record ProductChangedEvent(Type type, ProductDTO before, ProductDTO after) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        STOCK_CHANGED,
+        DELETED
+    }
+
+    public Long productId() {
+        return after != null ? after.getId() : before.getId();
+    }
+}
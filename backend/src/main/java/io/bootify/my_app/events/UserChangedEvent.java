@@ -0,0 +1,8 @@
+package io.bootify.my_app.events;
+
+/**
+ * Published whenever a user or its roles are written, so that tokens and principals carrying the old
+ * roles stop being trusted once the change is committed.
+ */
+public record UserChangedEvent(String username) {
+}
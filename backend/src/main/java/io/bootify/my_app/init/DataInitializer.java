@@ -1,22 +1,133 @@
 package io.bootify.my_app.init;
 
+import io.bootify.my_app.events.DataInitializedEvent;
+import io.bootify.my_app.events.UserChangedEvent;
 import io.bootify.my_app.model.Product;
+import io.bootify.my_app.model.Role;
+import io.bootify.my_app.model.User;
 import io.bootify.my_app.repos.ProductRepository;
+import io.bootify.my_app.repos.RoleRepository;
+import io.bootify.my_app.repos.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
 
+/**
+ * Creates the roles, the default admin/user accounts, the demo products and the optional load test
+ * fixtures. By default this runs before the application reports ready; with {@code app.seed.async=true}
+ * it runs on the task executor instead, so the server accepts traffic while the data is written.
+ */
 @Component
 public class DataInitializer implements CommandLineRunner {
+    private static final Logger logger = LoggerFactory.getLogger(DataInitializer.class);
+
+    private static final int SEED_BATCH_SIZE = 1000;
+    private static final String[] ADJECTIVES = {
+        "Compact", "Wireless", "Smart", "Portable", "Ultra", "Classic", "Premium", "Rugged", "Slim", "Pro"
+    };
+    private static final String[] NOUNS = {
+        "Laptop", "Phone", "Tablet", "Watch", "Headphones", "Speaker", "Camera", "Monitor", "Keyboard", "Charger"
+    };
 
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private TaskExecutor taskExecutor;
+
+    // Logins fail until the default users exist, so only enable this where nobody logs in at boot
+    @Value("${app.seed.async:false}")
+    private boolean async;
+
+    // Fixture sizes for load testing; 0 keeps only the demo data
+    @Value("${app.seed.products:0}")
+    private int seedProducts;
+
+    @Value("${app.seed.users:0}")
+    private int seedUsers;
+
+    @Value("${app.seed.random-seed:42}")
+    private long randomSeed;
+
+    @Value("${app.seed.user-password:loadtest}")
+    private String seedUserPassword;
+
     @Override
     public void run(String... args) {
+        if (async) {
+            taskExecutor.execute(this::initialize);
+        } else {
+            initialize();
+        }
+    }
+
+    private void initialize() {
+        long start = System.currentTimeMillis();
+        try {
+            seedAccounts();
+            seedDemoProducts();
+            seedProducts(new Random(randomSeed));
+            seedUsers();
+            logger.info("Data initialized in {} ms", System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            if (!async) {
+                throw e;
+            }
+            // Whatever was written stays; the listeners still build their views from the tables
+            logger.error("Background data initialization failed", e);
+        }
+        eventPublisher.publishEvent(new DataInitializedEvent());
+    }
+
+    private void seedAccounts() {
+        if (roleRepository.count() == 0) {
+            roleRepository.save(new Role("ADMIN"));
+            roleRepository.save(new Role("USER"));
+        }
+
+        if (!userRepository.existsByUsername("admin")) {
+            User admin = new User("admin", passwordEncoder.encode("admin"));
+            admin.addRole(roleRepository.findByName("ADMIN").get());
+            userRepository.save(admin);
+            eventPublisher.publishEvent(new UserChangedEvent(admin.getUsername()));
+        }
+
+        if (!userRepository.existsByUsername("user")) {
+            User user = new User("user", passwordEncoder.encode("user"));
+            user.addRole(roleRepository.findByName("USER").get());
+            userRepository.save(user);
+            eventPublisher.publishEvent(new UserChangedEvent(user.getUsername()));
+        }
+    }
+
+    private void seedDemoProducts() {
         if (productRepository.count() == 0) {
             Product laptop = new Product();
             laptop.setName("MacBook Pro");
@@ -56,4 +167,66 @@ public class DataInitializer implements CommandLineRunner {
             productRepository.saveAll(Arrays.asList(laptop, phone, tablet, watch, airpods));
         }
     }
-}
\ No newline at end of file
+
+    // Generated products are deterministic for a given random seed, so runs are comparable
+    private void seedProducts(Random random) {
+        long existing = productRepository.count();
+        if (existing >= seedProducts) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        List<Product> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        for (long i = existing; i < seedProducts; i++) {
+            Product product = new Product();
+            product.setName(ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                    + NOUNS[random.nextInt(NOUNS.length)] + " " + i);
+            product.setDescription("Generated product " + i + ", batch " + (i / SEED_BATCH_SIZE));
+            product.setPrice(BigDecimal.valueOf(500 + random.nextInt(300_000), 2));
+            product.setStockQuantity(random.nextInt(1000));
+            product.setActive(random.nextInt(10) != 0);
+            batch.add(product);
+            if (batch.size() == SEED_BATCH_SIZE) {
+                productRepository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        productRepository.saveAll(batch);
+        logger.info("Seeded {} products in {} ms", seedProducts - existing, System.currentTimeMillis() - start);
+    }
+
+    // Users are named loadtest-user-1..M and share one password hash, so seeding does not pay BCrypt per user
+    private void seedUsers() {
+        if (seedUsers <= 0) {
+            return;
+        }
+
+        Role userRole = roleRepository.findByName("USER").orElseGet(() -> roleRepository.save(new Role("USER")));
+        String passwordHash = passwordEncoder.encode(seedUserPassword);
+        List<User> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        int created = 0;
+        for (int i = 1; i <= seedUsers; i++) {
+            String username = "loadtest-user-" + i;
+            if (userRepository.existsByUsername(username)) {
+                continue;
+            }
+            User user = new User(username, passwordHash);
+            user.addRole(userRole);
+            batch.add(user);
+            created++;
+            if (batch.size() == SEED_BATCH_SIZE) {
+                saveUsers(batch);
+            }
+        }
+        saveUsers(batch);
+        logger.info("Seeded {} load test users", created);
+    }
+
+    private void saveUsers(List<User> batch) {
+        userRepository.saveAll(batch);
+        for (User user : batch) {
+            eventPublisher.publishEvent(new UserChangedEvent(user.getUsername()));
+        }
+        batch.clear();
+    }
+}
@@ -4,7 +4,9 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.persistence.Column;
 import java.math.BigDecimal;
 
@@ -12,8 +14,10 @@ import java.math.BigDecimal;
 @Table(name = "products")
 public class Product {
 
+    // Pooled sequence ids, so inserts can be JDBC-batched (IDENTITY forces one round trip per row)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -31,6 +35,10 @@ public class Product {
     @Column(nullable = false)
     private Boolean active = true;
 
+    // Optimistic lock for full updates; stock deltas bump it in their UPDATE statement
+    @Version
+    private Long version;
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -79,4 +87,12 @@ public class Product {
     public void setActive(Boolean active) {
         this.active = active;
     }
-}
\ No newline at end of file
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,51 @@
+package io.bootify.my_app.repos;
+
+import io.bootify.my_app.dto.ProductJsonWriter;
+import io.bootify.my_app.dto.ProductListing;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+
+/**
+ * Full product listings read with plain JDBC and written row by row, so a list of every product costs no
+ * entity, DTO or price string per row. The connection is held until the last row has been written.
+ */
+@Component
+public class ProductListingQuery {
+
+    private static final String SELECT_PRODUCTS = "SELECT id, name, description, price, stock_quantity, active, "
+            + "version FROM products";
+    private static final int FETCH_SIZE = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public ProductListing all(boolean activeOnly) {
+        String sql = SELECT_PRODUCTS + (activeOnly ? " WHERE active = TRUE" : "") + " ORDER BY id";
+        return generator -> {
+            ProductJsonWriter writer = new ProductJsonWriter();
+            generator.writeStartArray();
+            try {
+                jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(sql);
+                    statement.setFetchSize(FETCH_SIZE);
+                    return statement;
+                }, (RowCallbackHandler) row -> {
+                    try {
+                        writer.write(generator, row);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            generator.writeEndArray();
+        };
+    }
+}
@@ -1,19 +1,117 @@
 package io.bootify.my_app.repos;
 
+import io.bootify.my_app.dto.ProductDTO;
 import io.bootify.my_app.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
     
-    List<Product> findByActiveTrue();
+    // Read paths select straight into ProductDTO: no managed entities, no dirty-checking snapshots
+    String PRODUCT_DTO = "new io.bootify.my_app.dto.ProductDTO("
+            + "p.id, p.name, p.description, p.price, p.stockQuantity, p.active, p.version)";
+
+    @Transactional(readOnly = true)
+    @Query("SELECT " + PRODUCT_DTO + " FROM Product p ORDER BY p.id")
+    List<ProductDTO> findAllDtos();
+
+    @Transactional(readOnly = true)
+    @Query("SELECT " + PRODUCT_DTO + " FROM Product p WHERE p.active = true ORDER BY p.id")
+    List<ProductDTO> findActiveDtos();
+
+    @Transactional(readOnly = true)
+    @Query("SELECT " + PRODUCT_DTO + " FROM Product p WHERE p.id = :id")
+    Optional<ProductDTO> findDtoById(Long id);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT " + PRODUCT_DTO + " FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<ProductDTO> findDtosByIdIn(Collection<Long> ids);
+
+    // Keyset scrolling into a projection type; the sort must end with "id" so every position is unique
+    @Transactional(readOnly = true)
+    <T> Window<T> findBy(ScrollPosition position, Sort sort, Limit limit, Class<T> type);
+
+    @Transactional(readOnly = true)
+    <T> Window<T> findByActiveTrue(ScrollPosition position, Sort sort, Limit limit, Class<T> type);
+
+    // Name-sorted pages after the first. The keyset predicate is an OR, which the (name, id) index cannot
+    // seek on; the redundant bound on name can, so a deep page no longer walks the index from the start.
+    @Transactional(readOnly = true)
+    <T> Window<T> findByNameGreaterThanEqual(String name, ScrollPosition position, Sort sort, Limit limit,
+            Class<T> type);
+
+    @Transactional(readOnly = true)
+    <T> Window<T> findByNameLessThanEqual(String name, ScrollPosition position, Sort sort, Limit limit,
+            Class<T> type);
+
+    @Transactional(readOnly = true)
+    <T> Window<T> findByActiveTrueAndNameGreaterThanEqual(String name, ScrollPosition position, Sort sort,
+            Limit limit, Class<T> type);
+
+    @Transactional(readOnly = true)
+    <T> Window<T> findByActiveTrueAndNameLessThanEqual(String name, ScrollPosition position, Sort sort,
+            Limit limit, Class<T> type);
+
+    // Streaming DTO reads for export and indexing; callers must hold a transaction and close the stream
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT " + PRODUCT_DTO + " FROM Product p ORDER BY p.id")
+    Stream<ProductDTO> streamAllDtos();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT " + PRODUCT_DTO + " FROM Product p WHERE p.active = true ORDER BY p.id")
+    Stream<ProductDTO> streamActiveDtos();
     
-    @Modifying
-    @Query("UPDATE Product p SET p.active = false WHERE p.id = :id")
+    // Full-table inventory aggregates; only used to reconcile the incrementally maintained counters
+    @Transactional(readOnly = true)
+    @Query("SELECT COUNT(p) AS products, "
+            + "COALESCE(SUM(CASE WHEN p.active = true THEN 1 ELSE 0 END), 0) AS activeProducts, "
+            + "COALESCE(SUM(CASE WHEN p.active = true THEN p.stockQuantity ELSE 0 END), 0) AS stockUnits, "
+            + "COALESCE(SUM(CASE WHEN p.active = true THEN p.price * p.stockQuantity ELSE 0 END), 0) AS inventoryValue, "
+            + "COALESCE(SUM(CASE WHEN p.active = true AND p.stockQuantity <= :lowStockThreshold THEN 1 ELSE 0 END), 0) AS lowStockProducts, "
+            + "COALESCE(SUM(CASE WHEN p.active = true AND p.stockQuantity = 0 THEN 1 ELSE 0 END), 0) AS outOfStockProducts "
+            + "FROM Product p")
+    InventoryTotals inventoryTotals(int lowStockThreshold);
+
+    // Bumps the version like a full update, so a later PUT carrying the pre-delete version gets a 409
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Product p SET p.active = false, p.version = p.version + 1 WHERE p.id = :id")
     void softDelete(Long id);
-}
\ No newline at end of file
+
+    // Atomic stock delta in one conditional UPDATE, so concurrent adjustments never lose writes;
+    // returns 0 when the product does not exist or the stock would become negative
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity + :delta, p.version = p.version + 1 "
+            + "WHERE p.id = :id AND p.stockQuantity + :delta >= 0")
+    int adjustStock(Long id, int delta);
+
+    interface InventoryTotals {
+        long getProducts();
+
+        long getActiveProducts();
+
+        long getStockUnits();
+
+        BigDecimal getInventoryValue();
+
+        long getLowStockProducts();
+
+        long getOutOfStockProducts();
+    }
+}
@@ -1,10 +1,17 @@
 package io.bootify.my_app.repos;
 
+import io.bootify.my_app.config.EntityCacheConfig;
 import io.bootify.my_app.model.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
 
 public interface RoleRepository extends JpaRepository<Role, Long> {
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = EntityCacheConfig.ROLES_BY_NAME)})
     Optional<Role> findByName(String name);
 }
\ No newline at end of file
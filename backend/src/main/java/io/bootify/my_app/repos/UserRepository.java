@@ -1,11 +1,19 @@
 package io.bootify.my_app.repos;
 
+import io.bootify.my_app.config.EntityCacheConfig;
 import io.bootify.my_app.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+    // Answered from the query cache until the users table is written; the roles come from the users.roles region
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = EntityCacheConfig.USERS_BY_USERNAME)})
     Optional<User> findByUsername(String username);
     Boolean existsByUsername(String username);
 }
\ No newline at end of file
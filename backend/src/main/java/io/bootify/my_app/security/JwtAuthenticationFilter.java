@@ -1,12 +1,20 @@
 package io.bootify.my_app.security;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -15,7 +23,15 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Bearer-token authentication. Each phase is timed as auth.jwt{phase, outcome}: parse (header and
+ * verified-token cache lookup; hit or miss), verify (signature and expiry on a cache miss; valid or
+ * invalid) and lookup (principal from the token claims or from the user store). Tokens of a revoked
+ * session are rejected after the parse or verify phase and counted as auth.jwt.revoked.
+ */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
@@ -25,15 +41,59 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TokenRevocationList revocationList;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // "claims" trusts the roles embedded in the token, "database" always resolves the user
+    @Value("${jwt.auth-mode:claims}")
+    private String authMode;
+
+    private Timer parseHit;
+    private Timer parseMiss;
+    private Timer verifyValid;
+    private Timer verifyInvalid;
+    private Timer lookupClaims;
+    private Timer lookupDatabase;
+    private Counter revoked;
+
+    @PostConstruct
+    public void init() {
+        parseHit = timer("parse", "hit");
+        parseMiss = timer("parse", "miss");
+        verifyValid = timer("verify", "valid");
+        verifyInvalid = timer("verify", "invalid");
+        lookupClaims = timer("lookup", "claims");
+        lookupDatabase = timer("lookup", "database");
+        revoked = meterRegistry.counter("auth.jwt.revoked");
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
+            long start = System.nanoTime();
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            Claims claims = jwt != null ? jwtUtils.cachedClaims(jwt) : null;
+            if (jwt != null && claims == null) {
+                long verifyStart = System.nanoTime();
+                parseMiss.record(verifyStart - start, TimeUnit.NANOSECONDS);
+                claims = jwtUtils.verifyClaims(jwt);
+                (claims != null ? verifyValid : verifyInvalid).record(System.nanoTime() - verifyStart, TimeUnit.NANOSECONDS);
+            } else if (claims != null) {
+                parseHit.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            if (claims != null && revocationList.isRevoked(claims.get(JwtUtils.SESSION_CLAIM, String.class))) {
+                revoked.increment();
+                claims = null;
+            }
+            if (claims != null) {
+                UserDetails userDetails = resolvePrincipal(claims);
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -47,6 +107,35 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails resolvePrincipal(Claims claims) {
+        long start = System.nanoTime();
+        String username = claims.getSubject();
+        List<?> roles = claims.get(JwtUtils.ROLES_CLAIM, List.class);
+
+        if ("claims".equals(authMode) && roles != null && !principalCache.isStale(username, claims.getIssuedAt())) {
+            UserDetails user = User.withUsername(username)
+                    .password("")
+                    .authorities(roles.stream()
+                            .map(role -> new SimpleGrantedAuthority(role.toString()))
+                            .toList())
+                    .build();
+            lookupClaims.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return user;
+        }
+
+        // Tokens without roles, or issued before a role change, fall back to the (cached) user lookup
+        UserDetails user = principalCache.get(username, userDetailsService::loadUserByUsername);
+        lookupDatabase.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return user;
+    }
+
+    private Timer timer(String phase, String outcome) {
+        return Timer.builder("auth.jwt")
+                .tag("phase", phase)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
@@ -0,0 +1,225 @@
+package io.bootify.my_app.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Keys for signing and verifying access tokens. With ES256 (the default) tokens are signed with a P-256
+ * private key and name it in the "kid" header, and the public keys are published as a JWK set, so other
+ * services verify tokens without holding any secret. HS512 keeps the shared-secret signing.
+ * <p>
+ * Keys are read from JWT_KEYS_DIR, one PEM file per key named after its id. A file with a private and a
+ * public key can sign; a file with only a public key verifies tokens and is published. The last signing
+ * key in id order is the active one. A rotation therefore first adds the new public key on every instance,
+ * then the key pair, and drops the old key once the last token it signed has expired. The directory is
+ * re-read periodically and the key set is swapped as a whole, so a lookup is a read of an immutable map.
+ * Without a directory a key pair is generated at startup: tokens then do not survive a restart, and
+ * clients renew them with their refresh token. Instances do not accept each other's tokens either, so the
+ * production profile sets jwt.signing.require-keys-dir and the startup fails instead.
+ */
+@Component
+public class JwtKeyRing extends SigningKeyResolverAdapter {
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    private static final Pattern PEM_BLOCK = Pattern.compile(
+            "-----BEGIN (PRIVATE|PUBLIC) KEY-----([A-Za-z0-9+/=\\s]+)-----END \\1 KEY-----");
+
+    @Value("${jwt.signing.algorithm:ES256}")
+    private String algorithm;
+
+    @Value("${jwt.secret:defaultSecretKey12345678901234567890}")
+    private String secret;
+
+    @Value("${jwt.signing.keys-dir:}")
+    private String keysDir;
+
+    @Value("${jwt.signing.require-keys-dir:false}")
+    private boolean requireKeysDir;
+
+    private volatile KeySet keys;
+    // Bumped when a key is dropped, so tokens verified with it are not served from a cache any longer
+    private volatile int generation;
+
+    private record KeySet(String activeKid, Key signingKey, Map<String, Key> verificationKeys,
+            List<Map<String, Object>> jwks) {
+    }
+
+    @PostConstruct
+    public void init() throws IOException, GeneralSecurityException {
+        if (SignatureAlgorithm.HS512.name().equals(algorithm)) {
+            Key key = Keys.hmacShaKeyFor(secret.getBytes());
+            keys = new KeySet(null, key, Map.of(), List.of());
+        } else if (!SignatureAlgorithm.ES256.name().equals(algorithm)) {
+            throw new IllegalStateException("Unsupported jwt.signing.algorithm " + algorithm + "; use ES256 or HS512");
+        } else if (StringUtils.hasText(keysDir)) {
+            keys = load(Path.of(keysDir));
+            logger.info("Signing access tokens with key {} of {}", keys.activeKid(), keys.verificationKeys().keySet());
+        } else if (requireKeysDir) {
+            throw new IllegalStateException("No jwt.signing.keys-dir set; set JWT_KEYS_DIR to the signing keys "
+                    + "shared by all instances, or sign with JWT_SIGNING_ALGORITHM=HS512 and JWT_SECRET");
+        } else {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            KeyPair pair = generator.generateKeyPair();
+            String kid = UUID.randomUUID().toString();
+            keys = new KeySet(kid, pair.getPrivate(), Map.of(kid, pair.getPublic()),
+                    List.of(jwk(kid, (ECPublicKey) pair.getPublic())));
+            logger.warn("No jwt.signing.keys-dir set; signing with a key generated for this process only");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.signing.reload-interval-ms:60000}")
+    public void reload() {
+        if (keys == null || keys.activeKid() == null || !StringUtils.hasText(keysDir)) {
+            return;
+        }
+        try {
+            KeySet reloaded = load(Path.of(keysDir));
+            if (!reloaded.verificationKeys().keySet().equals(keys.verificationKeys().keySet())
+                    || !reloaded.activeKid().equals(keys.activeKid())) {
+                logger.info("Signing key set changed: signing with {} of {}", reloaded.activeKid(),
+                        reloaded.verificationKeys().keySet());
+            }
+            boolean retired = !reloaded.verificationKeys().keySet().containsAll(keys.verificationKeys().keySet());
+            keys = reloaded;
+            if (retired) {
+                generation++;
+            }
+        } catch (IOException | GeneralSecurityException | IllegalStateException e) {
+            logger.error("Cannot reload signing keys from {}; keeping the current ones", keysDir, e);
+        }
+    }
+
+    public JwtBuilder sign(JwtBuilder builder) {
+        KeySet current = keys;
+        if (current.activeKid() == null) {
+            return builder.signWith(current.signingKey(), SignatureAlgorithm.HS512);
+        }
+        return builder.setHeaderParam(JwsHeader.KEY_ID, current.activeKid())
+                .signWith(current.signingKey(), SignatureAlgorithm.ES256);
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        KeySet current = keys;
+        if (current.activeKid() == null) {
+            return current.signingKey();
+        }
+        Key key = header.getKeyId() != null ? current.verificationKeys().get(header.getKeyId()) : null;
+        if (key == null) {
+            throw new SignatureException("Unknown signing key id " + header.getKeyId());
+        }
+        return key;
+    }
+
+    public int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * The public keys as a JWK set (RFC 7517); empty with HS512, whose secret is never published.
+     */
+    public Map<String, Object> jwkSet() {
+        return Map.of("keys", keys.jwks());
+    }
+
+    private static KeySet load(Path dir) throws IOException, GeneralSecurityException {
+        KeyFactory keyFactory = KeyFactory.getInstance("EC");
+        Map<String, Key> verificationKeys = new HashMap<>();
+        List<Map<String, Object>> jwks = new ArrayList<>();
+        String activeKid = null;
+        PrivateKey signingKey = null;
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(dir)) {
+            files = listing.filter(file -> file.getFileName().toString().endsWith(".pem")).sorted().toList();
+        }
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            String kid = name.substring(0, name.length() - ".pem".length());
+            PrivateKey privateKey = null;
+            PublicKey publicKey = null;
+            Matcher block = PEM_BLOCK.matcher(Files.readString(file, StandardCharsets.US_ASCII));
+            while (block.find()) {
+                byte[] der = Base64.getMimeDecoder().decode(block.group(2));
+                if ("PRIVATE".equals(block.group(1))) {
+                    privateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(der));
+                } else {
+                    publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(der));
+                }
+            }
+            if (publicKey == null) {
+                throw new IllegalStateException("No public key in " + file);
+            }
+            verificationKeys.put(kid, publicKey);
+            jwks.add(jwk(kid, (ECPublicKey) publicKey));
+            if (privateKey != null) {
+                activeKid = kid;
+                signingKey = privateKey;
+            }
+        }
+        if (signingKey == null) {
+            throw new IllegalStateException("No private key in " + dir);
+        }
+        return new KeySet(activeKid, signingKey, Map.copyOf(verificationKeys), List.copyOf(jwks));
+    }
+
+    private static Map<String, Object> jwk(String kid, ECPublicKey key) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "EC");
+        jwk.put("crv", "P-256");
+        jwk.put("kid", kid);
+        jwk.put("use", "sig");
+        jwk.put("alg", "ES256");
+        jwk.put("x", coordinate(key.getW().getAffineX()));
+        jwk.put("y", coordinate(key.getW().getAffineY()));
+        return jwk;
+    }
+
+    // Unsigned, left-padded to the 32 bytes of a P-256 coordinate
+    private static String coordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] fixed = new byte[32];
+        int length = Math.min(bytes.length, 32);
+        System.arraycopy(bytes, bytes.length - length, fixed, 32 - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+    }
+}
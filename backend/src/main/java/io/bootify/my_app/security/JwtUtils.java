@@ -1,58 +1,138 @@
 package io.bootify.my_app.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
-    @Value("${jwt.secret:defaultSecretKey12345678901234567890}")
-    private String jwtSecret;
+    public static final String ROLES_CLAIM = "roles";
+    // Login session the token belongs to; revoking it revokes every access token of the session
+    public static final String SESSION_CLAIM = "sid";
 
-    @Value("${jwt.expiration:86400000}")
+    @Autowired
+    private JwtKeyRing keyRing;
+
+    @Value("${jwt.expiration:900000}")
     private int jwtExpirationMs;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    @Value("${jwt.cache.max-size:10000}")
+    private int tokenCacheMaxSize;
+
+    // The parser is immutable and thread-safe, so it is built once; it takes each token's key from the key ring
+    private JwtParser jwtParser;
+
+    // SHA-256 digest of an already verified token -> its claims, dropped when the token expires (null = disabled)
+    private Cache<String, Claims> verifiedTokens;
+    // Key ring generation the cached entries were verified under; a retired key empties the cache
+    private volatile int keyGeneration;
+
+    @PostConstruct
+    public void init() {
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(keyRing)
+                .build();
+        if (tokenCacheMaxSize <= 0) {
+            return;
+        }
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(tokenCacheMaxSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String digest, Claims claims, long currentTime) {
+                        long remainingMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMs, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String digest, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String digest, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
-    public String generateJwtToken(Authentication authentication) {
-        UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
+    /**
+     * Issues a short-lived access token for the session; it never outlives the session.
+     */
+    public String generateJwtToken(UserDetails userPrincipal, String sessionId, Instant sessionExpiresAt) {
+        List<String> roles = userPrincipal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+        long now = System.currentTimeMillis();
 
-        return Jwts.builder()
+        return keyRing.sign(Jwts.builder()
                 .setSubject(userPrincipal.getUsername())
-                .setIssuedAt(new Date())
-                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(getSigningKey())
+                .claim(ROLES_CLAIM, roles)
+                .claim(SESSION_CLAIM, sessionId)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(Math.min(now + jwtExpirationMs, sessionExpiresAt.toEpochMilli()))))
                 .compact();
     }
 
-    public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+    public int getJwtExpirationMs() {
+        return jwtExpirationMs;
     }
 
-    public boolean validateJwtToken(String authToken) {
+    /**
+     * Validates the token and returns its claims in a single pass, or null when the token is not valid.
+     * Tokens that were verified before are answered from the cache without checking the signature again.
+     */
+    public Claims parseClaims(String token) {
+        Claims claims = cachedClaims(token);
+        return claims != null ? claims : verifyClaims(token);
+    }
+
+    /**
+     * Claims of a token that was verified before, or null on a cache miss (or with the cache disabled).
+     */
+    public Claims cachedClaims(String token) {
+        if (verifiedTokens == null) {
+            return null;
+        }
+        int generation = keyRing.getGeneration();
+        if (generation != keyGeneration) {
+            verifiedTokens.invalidateAll();
+            keyGeneration = generation;
+        }
+        return verifiedTokens.getIfPresent(digest(token));
+    }
+
+    /**
+     * Checks signature and expiry, caching the claims of a valid token; null when the token is not valid.
+     */
+    public Claims verifyClaims(String token) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+            if (verifiedTokens != null && claims.getExpiration() != null) {
+                verifiedTokens.put(digest(token), claims);
+            }
+            return claims;
         } catch (SecurityException e) {
             logger.error("Invalid JWT signature: {}", e.getMessage());
         } catch (MalformedJwtException e) {
@@ -61,9 +141,29 @@ public class JwtUtils {
             logger.error("JWT token is expired: {}", e.getMessage());
         } catch (UnsupportedJwtException e) {
             logger.error("JWT token is unsupported: {}", e.getMessage());
+        } catch (JwtException e) {
+            logger.error("JWT token is invalid: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
             logger.error("JWT claims string is empty: {}", e.getMessage());
         }
-        return false;
+        return null;
+    }
+
+    public String getUserNameFromJwtToken(String token) {
+        Claims claims = parseClaims(token);
+        return claims != null ? claims.getSubject() : null;
+    }
+
+    public boolean validateJwtToken(String authToken) {
+        return parseClaims(authToken) != null;
+    }
+
+    private String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
-}
\ No newline at end of file
+}
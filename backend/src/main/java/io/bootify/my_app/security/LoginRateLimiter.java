@@ -0,0 +1,101 @@
+package io.bootify.my_app.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed-window login limits, checked before any password work is done: attempts per client address, and
+ * failed attempts per username from that address. Failures are not counted per username alone, as anyone
+ * could then lock an account out by naming it; a successful login clears the failures of its address.
+ */
+@Component
+public class LoginRateLimiter {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.login.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.login.rate-limit.window-seconds:60}")
+    private long windowSeconds;
+
+    @Value("${app.login.rate-limit.failures-per-username:20}")
+    private int failuresPerUsername;
+
+    @Value("${app.login.rate-limit.per-ip:300}")
+    private int perIp;
+
+    @Value("${app.login.rate-limit.max-tracked:100000}")
+    private long maxTracked;
+
+    // key -> attempts in the window that started when the entry was created
+    private Cache<String, Window> windows;
+
+    @PostConstruct
+    public void init() {
+        windows = Caffeine.newBuilder()
+                .maximumSize(maxTracked)
+                .expireAfterWrite(Duration.ofSeconds(windowSeconds))
+                .build();
+    }
+
+    /**
+     * Counts one attempt for the address and checks the failures of the username from it.
+     *
+     * @throws LoginThrottledException with status 429 when either limit is exceeded
+     */
+    public void acquire(String username, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        Window failures = windows.getIfPresent(failuresKey(username, clientIp));
+        if (failures != null && failures.attempts.get() >= failuresPerUsername) {
+            reject(failures, "username");
+        }
+        Window attempts = windows.get("ip:" + clientIp, k -> new Window(System.nanoTime()));
+        if (attempts.attempts.incrementAndGet() > perIp) {
+            reject(attempts, "ip");
+        }
+    }
+
+    public void recordFailure(String username, String clientIp) {
+        if (enabled) {
+            windows.get(failuresKey(username, clientIp), k -> new Window(System.nanoTime())).attempts.incrementAndGet();
+        }
+    }
+
+    public void recordSuccess(String username, String clientIp) {
+        if (enabled) {
+            windows.invalidate(failuresKey(username, clientIp));
+        }
+    }
+
+    private void reject(Window window, String scope) {
+        meterRegistry.counter("auth.login.rejected", "reason", "rate_limited", "scope", scope).increment();
+        long elapsedSeconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - window.startNanos);
+        throw new LoginThrottledException(HttpStatus.TOO_MANY_REQUESTS,
+                Math.max(1, windowSeconds - elapsedSeconds), "Too many login attempts, try again later");
+    }
+
+    private static String failuresKey(String username, String clientIp) {
+        return "failed:" + username.toLowerCase(Locale.ROOT) + '@' + clientIp;
+    }
+
+    private record Window(long startNanos, AtomicInteger attempts) {
+        Window(long startNanos) {
+            this(startNanos, new AtomicInteger());
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package io.bootify.my_app.security;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * A login attempt that was turned away before its password was checked, either because the caller
+ * exceeded its rate limit (429) or because password verification is saturated (503).
+ */
+public class LoginThrottledException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(HttpStatus status, long retryAfterSeconds, String message) {
+        super(message);
+        this.status = status;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
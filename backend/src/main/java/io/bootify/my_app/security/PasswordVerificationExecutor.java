@@ -0,0 +1,117 @@
+package io.bootify.my_app.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs password verification on a small dedicated pool with a bounded queue, so a login storm
+ * uses at most {@code threads} cores for BCrypt and is rejected fast instead of tying up the
+ * request threads that serve the rest of the API.
+ */
+@Component
+public class PasswordVerificationExecutor {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // 0 means one thread per available processor
+    @Value("${app.login.verification.threads:0}")
+    private int threads;
+
+    @Value("${app.login.verification.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${app.login.verification.timeout-ms:5000}")
+    private long timeoutMs;
+
+    private ThreadPoolExecutor executor;
+    private Timer waitTimer;
+    private Timer verificationTimer;
+    private Counter saturatedRejections;
+    private Counter timeoutRejections;
+
+    @PostConstruct
+    public void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-verify-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "auth.verification", List.of()).bindTo(meterRegistry);
+
+        waitTimer = Timer.builder("auth.verification.wait")
+                .description("Time a login waited for a verification thread")
+                .register(meterRegistry);
+        verificationTimer = Timer.builder("auth.verification.duration")
+                .description("User lookup and password verification time")
+                .register(meterRegistry);
+        saturatedRejections = meterRegistry.counter("auth.login.rejected", "reason", "saturated", "scope", "server");
+        timeoutRejections = meterRegistry.counter("auth.login.rejected", "reason", "timeout", "scope", "server");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Runs the verification on the pool and waits for its result. Runtime exceptions thrown by the
+     * task (e.g. BadCredentialsException) are rethrown unchanged.
+     *
+     * @throws LoginThrottledException with status 503 when the queue is full or the result does not
+     *         arrive within the timeout
+     */
+    public <T> T verify(Supplier<T> verification) {
+        long submittedAt = System.nanoTime();
+        Future<T> result;
+        try {
+            result = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return verificationTimer.record(verification);
+            });
+        } catch (RejectedExecutionException e) {
+            saturatedRejections.increment();
+            throw overloaded();
+        }
+
+        try {
+            return result.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            timeoutRejections.increment();
+            throw overloaded();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw overloaded();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private LoginThrottledException overloaded() {
+        return new LoginThrottledException(HttpStatus.SERVICE_UNAVAILABLE, 1,
+                "Login service is busy, try again shortly");
+    }
+}
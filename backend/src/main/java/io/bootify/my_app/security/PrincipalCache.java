@@ -0,0 +1,82 @@
+package io.bootify.my_app.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.bootify.my_app.events.UserChangedEvent;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.function.Function;
+
+/**
+ * Short-lived cache of authenticated principals, so that JwtAuthenticationFilter does not hit
+ * users/user_roles on every request. Whenever a user or its roles are written, publish a
+ * {@link UserChangedEvent}: once it is committed the cached principal is dropped and tokens issued
+ * before the change stop being trusted for their embedded roles.
+ */
+@Component
+public class PrincipalCache {
+
+    @Value("${jwt.principal-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${jwt.principal-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${jwt.expiration:900000}")
+    private long jwtExpirationMs;
+
+    private Cache<String, UserDetails> principals;
+
+    // username -> epoch millis of the last role change, kept as long as a token issued before it may live
+    private Cache<String, Long> rolesChangedAt;
+
+    @PostConstruct
+    public void init() {
+        principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+        rolesChangedAt = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(jwtExpirationMs))
+                .build();
+    }
+
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        return principals.get(username, name -> withoutPassword(loader.apply(name)));
+    }
+
+    /**
+     * Whether roles carried by a token issued at the given time may be out of date.
+     */
+    public boolean isStale(String username, Date issuedAt) {
+        Long changedAt = rolesChangedAt.getIfPresent(username);
+        return changedAt != null && (issuedAt == null || issuedAt.getTime() <= changedAt);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate(event.username());
+    }
+
+    public void invalidate(String username) {
+        rolesChangedAt.put(username, System.currentTimeMillis());
+        principals.invalidate(username);
+    }
+
+    public void invalidateAll() {
+        principals.invalidateAll();
+    }
+
+    private UserDetails withoutPassword(UserDetails userDetails) {
+        return User.withUserDetails(userDetails)
+                .password("")
+                .build();
+    }
+}
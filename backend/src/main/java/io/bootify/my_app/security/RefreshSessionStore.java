@@ -0,0 +1,204 @@
+package io.bootify.my_app.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Login sessions behind the refresh tokens. A refresh token is "session id.secret" and only a hash of the
+ * secret is stored. Every refresh replaces the secret with a conditional UPDATE, so of two requests
+ * presenting the same token only one rotates it.
+ * <p>
+ * Tabs sharing a session and retries after a lost response present the same token again moments later.
+ * For jwt.refresh.reuse-grace-ms after a rotation the token is therefore answered with the successor it
+ * was already given, and concurrent refreshes with it on this instance wait for that one rotation. Another
+ * instance, which does not hold the successor, rejects the token without revoking anything. A replaced
+ * token presented after the grace period has been copied: the whole session is revoked, including its
+ * access tokens.
+ * <p>
+ * The session lifetime is fixed at login; rotation does not extend it. Access tokens carry the session
+ * id, and a revoked session id stays in the {@link TokenRevocationList} until they have all expired.
+ */
+@Component
+public class RefreshSessionStore {
+    private static final Logger logger = LoggerFactory.getLogger(RefreshSessionStore.class);
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TokenRevocationList revocationList;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${jwt.expiration:900000}")
+    private long accessTokenExpirationMs;
+
+    @Value("${jwt.refresh.expiration:604800000}")
+    private long sessionExpirationMs;
+
+    @Value("${jwt.refresh.reuse-grace-ms:10000}")
+    private long reuseGraceMs;
+
+    private final SecureRandom random = new SecureRandom();
+    private Counter reused;
+    private Counter repeated;
+
+    // Hash of a replaced token -> the session with its successor, for the grace period
+    private Cache<String, Session> rotations;
+
+    public record Session(String id, String username, Instant expiresAt, String refreshToken) {
+    }
+
+    private record Row(String username, String tokenHash, String previousTokenHash, Instant expiresAt,
+            boolean revoked, Instant rotatedAt) {
+    }
+
+    // Sessions revoked shortly before a restart still have live access tokens
+    @PostConstruct
+    public void init() {
+        reused = meterRegistry.counter("auth.refresh.reused");
+        repeated = meterRegistry.counter("auth.refresh.repeated");
+        rotations = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofMillis(reuseGraceMs))
+                .build();
+        long now = System.currentTimeMillis();
+        List<String> revoked = jdbcTemplate.queryForList(
+                "SELECT session_id FROM refresh_sessions WHERE revoked_at > ?", String.class,
+                new Timestamp(now - accessTokenExpirationMs));
+        revoked.forEach(sessionId -> revocationList.revoke(sessionId, now + accessTokenExpirationMs));
+    }
+
+    public Session create(String username) {
+        String sessionId = UUID.randomUUID().toString();
+        String secret = newSecret();
+        Instant expiresAt = Instant.now().plusMillis(sessionExpirationMs);
+        jdbcTemplate.update("INSERT INTO refresh_sessions (session_id, username, token_hash, expires_at) "
+                + "VALUES (?, ?, ?, ?)", sessionId, username, hash(secret), Timestamp.from(expiresAt));
+        return new Session(sessionId, username, expiresAt, sessionId + '.' + secret);
+    }
+
+    /**
+     * Replaces the token with a new one; null when it is unknown, expired, revoked or was used before. Within
+     * the grace period after its rotation a token yields the same successor again.
+     */
+    public Session rotate(String refreshToken) {
+        int separator = refreshToken.indexOf('.');
+        if (separator <= 0) {
+            return null;
+        }
+        String sessionId = refreshToken.substring(0, separator);
+        String tokenHash = hash(refreshToken.substring(separator + 1));
+        Session successor = rotations.getIfPresent(tokenHash);
+        if (successor == null) {
+            // Null results are not cached; concurrent calls with the same token share one rotation
+            successor = rotations.get(tokenHash, hash -> rotate(sessionId, hash));
+        } else {
+            repeated.increment();
+        }
+        return successor != null && !revocationList.isRevoked(sessionId) ? successor : null;
+    }
+
+    private Session rotate(String sessionId, String tokenHash) {
+        List<Row> rows = jdbcTemplate.query("SELECT username, token_hash, previous_token_hash, expires_at, revoked_at, "
+                + "rotated_at FROM refresh_sessions WHERE session_id = ?", (rs, i) -> new Row(rs.getString(1),
+                rs.getString(2), rs.getString(3), rs.getTimestamp(4).toInstant(), rs.getTimestamp(5) != null,
+                rs.getTimestamp(6) != null ? rs.getTimestamp(6).toInstant() : null), sessionId);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Row row = rows.get(0);
+        Instant now = Instant.now();
+        if (row.revoked() || !row.expiresAt().isAfter(now)) {
+            return null;
+        }
+        if (tokenHash.equals(row.previousTokenHash())) {
+            if (withinGrace(row.rotatedAt(), now)) {
+                // Rotated by another instance, which holds the successor
+                repeated.increment();
+            } else {
+                revokeReused(sessionId, row.username());
+            }
+            return null;
+        }
+        if (!tokenHash.equals(row.tokenHash())) {
+            return null;
+        }
+
+        String secret = newSecret();
+        int updated = jdbcTemplate.update("UPDATE refresh_sessions SET token_hash = ?, previous_token_hash = ?, "
+                + "rotated_at = ? WHERE session_id = ? AND token_hash = ? AND revoked_at IS NULL", hash(secret),
+                tokenHash, Timestamp.from(now), sessionId, tokenHash);
+        if (updated == 0) {
+            // Another instance rotated the same token just now, or the session was revoked meanwhile
+            repeated.increment();
+            return null;
+        }
+        return new Session(sessionId, row.username(), row.expiresAt(), sessionId + '.' + secret);
+    }
+
+    public void revoke(String sessionId) {
+        long now = System.currentTimeMillis();
+        jdbcTemplate.update("UPDATE refresh_sessions SET revoked_at = ? WHERE session_id = ? AND revoked_at IS NULL",
+                new Timestamp(now), sessionId);
+        revocationList.revoke(sessionId, now + accessTokenExpirationMs);
+    }
+
+    // Expired sessions, and revoked ones whose access tokens have run out
+    @Scheduled(fixedDelayString = "${jwt.refresh.purge-interval-ms:3600000}")
+    public void purge() {
+        long now = System.currentTimeMillis();
+        int purged = jdbcTemplate.update("DELETE FROM refresh_sessions WHERE expires_at < ? OR revoked_at < ?",
+                new Timestamp(now), new Timestamp(now - accessTokenExpirationMs));
+        logger.debug("Purged {} refresh sessions", purged);
+    }
+
+    private boolean withinGrace(Instant rotatedAt, Instant now) {
+        return rotatedAt != null && rotatedAt.plusMillis(reuseGraceMs).isAfter(now);
+    }
+
+    private void revokeReused(String sessionId, String username) {
+        reused.increment();
+        logger.warn("Refresh token of session {} (user {}) was used twice; revoking the session", sessionId, username);
+        revoke(sessionId);
+    }
+
+    private String newSecret() {
+        byte[] secret = new byte[32];
+        random.nextBytes(secret);
+        return ENCODER.encodeToString(secret);
+    }
+
+    private static String hash(String secret) {
+        try {
+            return ENCODER.encodeToString(MessageDigest.getInstance("SHA-256")
+                    .digest(secret.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package io.bootify.my_app.security;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 
 import java.util.List;
@@ -80,7 +83,27 @@ public class SecurityConfig {
         return source;
     }
 
+    // Actuator endpoints are served on management.server.port, which nginx does not proxy. Health and
+    // the Prometheus scrape are open to whatever can reach that port; everything else needs an admin token.
     @Bean
+    @Order(1)
+    public SecurityFilterChain managementFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher(EndpointRequest.toAnyEndpoint())
+            .csrf(csrf -> csrf.disable())
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .authorizeHttpRequests(auth ->
+                auth
+                    .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
+                    .anyRequest().hasRole("ADMIN")
+            )
+            .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+
+        return http.build();
+    }
+
+    @Bean
+    @Order(2)
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
@@ -95,6 +118,7 @@ public class SecurityConfig {
                         "/api/auth/register"
                     ).permitAll()
                     .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll() // Allow OPTIONS requests
+                    .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll() // Streamed responses, already authorized
                     .anyRequest().authenticated()
             )
             .authenticationProvider(authenticationProvider())
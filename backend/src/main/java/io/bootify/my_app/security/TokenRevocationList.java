@@ -0,0 +1,143 @@
+package io.bootify.my_app.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Revoked token ids, checked on every authenticated request. An id only has to stay revoked until the
+ * tokens carrying it expire, so ids are grouped in buckets by the end of their revocation and a bucket is
+ * dropped whole once its end has passed. Each bucket pairs a small bloom filter with the exact set of its
+ * ids: a check probes the filters with a handful of volatile reads and only looks at an exact set on a
+ * filter hit, which is the rare case of a revoked id or a false positive.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final int HASHES = 4;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${jwt.revocation.bucket-ms:300000}")
+    private long bucketMs;
+
+    // Per bucket; rounded up to a power of two
+    @Value("${jwt.revocation.bloom-bits:65536}")
+    private int bloomBits;
+
+    private final Map<Long, Bucket> buckets = new ConcurrentHashMap<>();
+    // Copy of buckets.values() for the lock-free check, republished whenever a bucket is added or dropped
+    private volatile Bucket[] live = new Bucket[0];
+
+    @PostConstruct
+    public void init() {
+        bloomBits = Integer.highestOneBit(Math.max(bloomBits - 1, 63)) << 1;
+        meterRegistry.gauge("auth.revocations", this, TokenRevocationList::size);
+    }
+
+    /**
+     * Revokes the id until the given time, after which every token carrying it has expired.
+     */
+    public void revoke(String id, long untilMillis) {
+        long index = Math.floorDiv(untilMillis, bucketMs) + 1;
+        Bucket bucket = buckets.get(index);
+        if (bucket == null) {
+            synchronized (this) {
+                bucket = buckets.computeIfAbsent(index, i -> new Bucket(i * bucketMs, bloomBits));
+                publish();
+            }
+        }
+        bucket.add(id);
+    }
+
+    public boolean isRevoked(String id) {
+        Bucket[] snapshot = live;
+        if (id == null || snapshot.length == 0) {
+            return false;
+        }
+        long hash = mix(id.hashCode());
+        for (Bucket bucket : snapshot) {
+            if (bucket.mightContain(hash) && bucket.ids.contains(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Bucket bucket : live) {
+            size += bucket.ids.size();
+        }
+        return size;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.bucket-ms:300000}")
+    public synchronized void purge() {
+        long now = System.currentTimeMillis();
+        if (buckets.values().removeIf(bucket -> bucket.end <= now)) {
+            publish();
+        }
+    }
+
+    private void publish() {
+        live = buckets.values().toArray(Bucket[]::new);
+    }
+
+    // Spreads String.hashCode() over 64 bits (murmur3 finalizer); its two halves seed the probe sequence
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Bucket {
+        private final long end;
+        private final AtomicLongArray bits;
+        private final int mask;
+        private final Set<String> ids = ConcurrentHashMap.newKeySet();
+
+        Bucket(long end, int bloomBits) {
+            this.end = end;
+            this.bits = new AtomicLongArray(bloomBits >>> 6);
+            this.mask = bloomBits - 1;
+        }
+
+        void add(String id) {
+            // The exact set first, so a filter hit never finds the id missing from it
+            ids.add(id);
+            long hash = mix(id.hashCode());
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = (h1 + i * h2) & mask;
+                long flag = 1L << bit;
+                bits.getAndAccumulate(bit >>> 6, flag, (word, f) -> word | f);
+            }
+        }
+
+        boolean mightContain(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = (h1 + i * h2) & mask;
+                if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package io.bootify.my_app.service;
+
+import io.bootify.my_app.dto.InventoryStats;
+import io.bootify.my_app.dto.ProductDTO;
+import io.bootify.my_app.events.DataInitializedEvent;
+import io.bootify.my_app.events.ProductChangedEvent;
+import io.bootify.my_app.repos.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dashboard inventory KPIs kept in LongAdders. Every committed product change subtracts the
+ * contribution of its before-state and adds that of its after-state, so reads never touch the table.
+ * <p>
+ * Writes that bypass the events (seeding, manual SQL) and the rare event racing a reconciliation
+ * cause drift, which the periodic reconciliation against a full aggregate query corrects. The
+ * correction is only applied when no event landed while the aggregate ran; otherwise it is retried
+ * on the next run. Values are read one adder at a time, so a response is not an atomic snapshot.
+ */
+@Component
+public class InventoryCounters {
+    private static final Logger logger = LoggerFactory.getLogger(InventoryCounters.class);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.products.stats.low-stock-threshold:10}")
+    private int lowStockThreshold;
+
+    private final LongAdder products = new LongAdder();
+    private final LongAdder activeProducts = new LongAdder();
+    private final LongAdder stockUnits = new LongAdder();
+    // Price x stock in cents; prices are stored with scale 2
+    private final LongAdder valueCents = new LongAdder();
+    private final LongAdder lowStockProducts = new LongAdder();
+    private final LongAdder outOfStockProducts = new LongAdder();
+    // Bumped after every applied change, so a reconciliation can tell whether it raced one
+    private final AtomicLong changes = new AtomicLong();
+    // The scheduler starts before seeding completes; reconciling against a half-seeded table is pointless
+    private volatile boolean started;
+    private volatile Instant reconciledAt;
+    private Counter inSync;
+    private Counter corrected;
+    private Counter skipped;
+
+    @PostConstruct
+    public void init() {
+        inSync = meterRegistry.counter("products.stats.reconciliations", "result", "in-sync");
+        corrected = meterRegistry.counter("products.stats.reconciliations", "result", "corrected");
+        skipped = meterRegistry.counter("products.stats.reconciliations", "result", "skipped");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        apply(event.before(), -1);
+        apply(event.after(), 1);
+        changes.incrementAndGet();
+    }
+
+    public boolean isReady() {
+        return reconciledAt != null;
+    }
+
+    public InventoryStats getStats() {
+        return new InventoryStats(products.sum(), activeProducts.sum(), stockUnits.sum(),
+                BigDecimal.valueOf(valueCents.sum(), 2), lowStockProducts.sum(), outOfStockProducts.sum(),
+                lowStockThreshold, reconciledAt);
+    }
+
+    @EventListener(DataInitializedEvent.class)
+    public void start() {
+        started = true;
+        reconcile();
+    }
+
+    @Scheduled(fixedDelayString = "${app.products.stats.reconcile-interval-ms:300000}",
+            initialDelayString = "${app.products.stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        if (!started) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        long changesBefore = changes.get();
+        long[] counted = values();
+        ProductRepository.InventoryTotals totals = productRepository.inventoryTotals(lowStockThreshold);
+        if (changes.get() != changesBefore) {
+            skipped.increment();
+            logger.debug("Inventory reconciliation skipped: products changed while aggregating");
+            return;
+        }
+
+        long[] actual = {
+            totals.getProducts(), totals.getActiveProducts(), totals.getStockUnits(),
+            toCents(totals.getInventoryValue()), totals.getLowStockProducts(), totals.getOutOfStockProducts()
+        };
+        LongAdder[] adders = adders();
+        boolean drifted = false;
+        for (int i = 0; i < adders.length; i++) {
+            // Add the difference rather than resetting, so a change applied after the check is kept
+            if (actual[i] != counted[i]) {
+                adders[i].add(actual[i] - counted[i]);
+                drifted = true;
+            }
+        }
+        if (drifted) {
+            corrected.increment();
+            if (reconciledAt != null) {
+                logger.warn("Inventory counters drifted and were corrected in {} ms",
+                        System.currentTimeMillis() - start);
+            }
+        } else {
+            inSync.increment();
+        }
+        reconciledAt = Instant.now();
+    }
+
+    private void apply(ProductDTO product, int sign) {
+        if (product == null) {
+            return;
+        }
+        products.add(sign);
+        if (!Boolean.TRUE.equals(product.getActive())) {
+            return;
+        }
+        int stock = product.getStockQuantity();
+        activeProducts.add(sign);
+        stockUnits.add((long) sign * stock);
+        valueCents.add(sign * toCents(product.getPrice()) * stock);
+        if (stock <= lowStockThreshold) {
+            lowStockProducts.add(sign);
+        }
+        if (stock == 0) {
+            outOfStockProducts.add(sign);
+        }
+    }
+
+    private LongAdder[] adders() {
+        return new LongAdder[] {products, activeProducts, stockUnits, valueCents, lowStockProducts, outOfStockProducts};
+    }
+
+    private long[] values() {
+        LongAdder[] adders = adders();
+        long[] values = new long[adders.length];
+        for (int i = 0; i < adders.length; i++) {
+            values[i] = adders[i].sum();
+        }
+        return values;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
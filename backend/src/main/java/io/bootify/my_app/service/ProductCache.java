@@ -0,0 +1,174 @@
+package io.bootify.my_app.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.bootify.my_app.dto.ProductDTO;
+import io.bootify.my_app.events.ProductChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of product DTOs by id and of the active product list. Every entry carries its JSON
+ * form, serialized once and written as is to every JSON response, and an ETag computed from it, so
+ * conditional requests are answered without serializing again. The tag is weak: it names the data, which
+ * is also sent as Smile or CBOR and compressed or not, and Tomcat does not compress responses with a
+ * strong ETag. Entries are dropped after each committed product change.
+ * <p>
+ * Loads are single-flight: the first request for a missing key runs the query on its own thread, and
+ * identical requests arriving meanwhile wait for that result instead of querying too. They wait at most
+ * app.products.cache.coalesce-timeout-ms and are then answered with 503.
+ */
+@Component
+public class ProductCache {
+
+    private static final String ACTIVE_PRODUCTS = "active";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.products.cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${app.products.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${app.products.cache.coalesce-timeout-ms:5000}")
+    private long coalesceTimeoutMs;
+
+    private AsyncCache<Long, Entry<ProductDTO>> products;
+    private AsyncCache<String, Entry<List<ProductDTO>>> productLists;
+    private Flights productFlights;
+    private Flights productListFlights;
+
+    @PostConstruct
+    public void init() {
+        products = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .buildAsync();
+        productLists = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, products, "products");
+        CaffeineCacheMetrics.monitor(meterRegistry, productLists, "product-lists");
+        productFlights = new Flights("product");
+        productListFlights = new Flights("active-list");
+    }
+
+    /**
+     * Returns the cached product, loading it on a miss; null when the loader finds nothing
+     * (absent products are not cached).
+     */
+    public Entry<ProductDTO> getProduct(Long id, Function<Long, ProductDTO> loader) {
+        return get(products, id, productFlights, () -> {
+            ProductDTO product = loader.apply(id);
+            return product != null ? entry(product) : null;
+        });
+    }
+
+    public Entry<List<ProductDTO>> getActiveProducts(Supplier<List<ProductDTO>> loader) {
+        return get(productLists, ACTIVE_PRODUCTS, productListFlights, () -> entry(List.copyOf(loader.get())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        products.synchronous().invalidate(event.productId());
+        productLists.synchronous().invalidateAll();
+    }
+
+    private <K, V> Entry<V> get(AsyncCache<K, Entry<V>> cache, K key, Flights flights, Supplier<Entry<V>> loader) {
+        CompletableFuture<Entry<V>> flight = new CompletableFuture<>();
+        CompletableFuture<Entry<V>> current = cache.get(key, (k, executor) -> flight);
+        if (current == flight) {
+            // This request loads; the cache drops the entry again if the result is null or the load fails
+            flights.loads.increment();
+            try {
+                flight.complete(loader.get());
+            } catch (Throwable e) {
+                flight.completeExceptionally(e);
+                throw e;
+            }
+            return flight.join();
+        }
+        if (!current.isDone()) {
+            flights.shared.increment();
+        }
+        try {
+            return current.get(coalesceTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            flights.timeouts.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Product read is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Product read was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Product read failed", e.getCause());
+        }
+    }
+
+    private <T> Entry<T> entry(T value) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(value);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return new Entry<>(value, json, "W/\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"");
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot serialize cache entry", e);
+        }
+    }
+
+    // Per kind of key, not per key: product ids would make one time series each
+    private final class Flights {
+        private final Counter loads;
+        private final Counter shared;
+        private final Counter timeouts;
+
+        private Flights(String kind) {
+            loads = meterRegistry.counter("products.cache.loads", "kind", kind);
+            shared = meterRegistry.counter("products.cache.coalesced", "kind", kind, "result", "shared");
+            timeouts = meterRegistry.counter("products.cache.coalesced", "kind", kind, "result", "timeout");
+        }
+    }
+
+    /**
+     * A cached value with its JSON serialization, which responses write instead of serializing the value.
+     */
+    public record Entry<T>(T value, byte[] json, String etag) {
+
+        // Debug logging of response bodies would otherwise format the whole product list
+        @Override
+        public String toString() {
+            return "Entry[etag=" + etag + ", json=" + json.length + " bytes]";
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package io.bootify.my_app.service;
+
+import io.bootify.my_app.dto.ProductChange;
+import io.bootify.my_app.events.ProductChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Server-Sent Events feed of committed product changes.
+ * <p>
+ * Changes are numbered and kept in a bounded in-memory log, so a reconnecting client resumes from its
+ * Last-Event-ID. Ids are prefixed with the start time of this process, so an id kept across a restart
+ * is recognised as unknown. Each subscriber has a bounded buffer keyed by product: a newer change to a
+ * pending product replaces the older one, and a buffer that overflows with distinct products is dropped
+ * in favour of a single "reset" event telling the client to reload. Sends run on a virtual thread per
+ * subscriber, so a slow client never holds up the committing request or the other subscribers.
+ */
+@Component
+public class ProductChangeFeed {
+    private static final Logger logger = LoggerFactory.getLogger(ProductChangeFeed.class);
+
+    static final String READY_EVENT = "ready";
+    static final String CHANGE_EVENT = "change";
+    static final String RESET_EVENT = "reset";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.products.feed.log-size:10000}")
+    private int logSize;
+
+    @Value("${app.products.feed.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${app.products.feed.max-subscribers:1000}")
+    private int maxSubscribers;
+
+    @Value("${app.products.feed.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Ring buffer of the last logSize changes; guarded by this, like lastId
+    private Entry[] log;
+    private long lastId;
+    private ExecutorService senders;
+    private Counter coalesced;
+    private Counter overflowResets;
+    private Counter expiredResets;
+
+    @PostConstruct
+    public void init() {
+        log = new Entry[logSize];
+        senders = Executors.newVirtualThreadPerTaskExecutor();
+        meterRegistry.gaugeCollectionSize("products.feed.subscribers", Tags.empty(), subscribers);
+        coalesced = meterRegistry.counter("products.feed.coalesced");
+        overflowResets = meterRegistry.counter("products.feed.resets", "reason", "overflow");
+        expiredResets = meterRegistry.counter("products.feed.resets", "reason", "expired");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        ProductChange change = new ProductChange(event.type(), event.productId(),
+                event.after() != null ? event.after() : event.before());
+        synchronized (this) {
+            Entry entry = new Entry(++lastId, change);
+            log[(int) (entry.id() % log.length)] = entry;
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(entry);
+            }
+        }
+    }
+
+    public boolean hasCapacity() {
+        return subscribers.size() < maxSubscribers;
+    }
+
+    /**
+     * Opens a stream. Without a Last-Event-ID the client gets a "ready" event carrying the current
+     * position; with one it gets the changes it missed, or a "reset" when they are no longer in the log.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        // Under the log lock, so no change can fall between the replay and the registration
+        synchronized (this) {
+            if (lastEventId == null) {
+                subscriber.control(READY_EVENT, lastId, "connected");
+            } else {
+                Long from = parseId(lastEventId);
+                if (from == null || from > lastId || from < lastId - log.length) {
+                    expiredResets.increment();
+                    subscriber.control(RESET_EVENT, lastId, "expired");
+                } else {
+                    for (long id = from + 1; id <= lastId; id++) {
+                        subscriber.offer(log[(int) (id % log.length)]);
+                    }
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        return emitter;
+    }
+
+    // Keeps idle connections open through proxies that close silent streams
+    @Scheduled(fixedDelayString = "${app.products.feed.heartbeat-ms:15000}")
+    public void heartbeat() {
+        subscribers.forEach(Subscriber::heartbeat);
+    }
+
+    private String formatId(long id) {
+        return epoch + "-" + id;
+    }
+
+    private Long parseId(String eventId) {
+        int separator = eventId.lastIndexOf('-');
+        if (separator < 0 || !epoch.equals(eventId.substring(0, separator))) {
+            return null;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private record Entry(long id, ProductChange change) {
+    }
+
+    private record Control(String name, long id, String reason) {
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        // Pending changes by product, oldest first; re-inserting on coalesce keeps ids increasing
+        private final LinkedHashMap<Long, Entry> pending = new LinkedHashMap<>();
+        private Control control;
+        private boolean heartbeat;
+        private boolean draining;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        synchronized void offer(Entry entry) {
+            if (control != null && RESET_EVENT.equals(control.name())) {
+                // The client reloads everything anyway; only move the resume position forward
+                control = new Control(RESET_EVENT, entry.id(), control.reason());
+                return;
+            }
+            if (pending.remove(entry.change().getProductId()) != null) {
+                coalesced.increment();
+            } else if (pending.size() >= bufferSize) {
+                overflowResets.increment();
+                control(RESET_EVENT, entry.id(), "overflow");
+                return;
+            }
+            pending.put(entry.change().getProductId(), entry);
+            schedule();
+        }
+
+        synchronized void control(String name, long id, String reason) {
+            if (RESET_EVENT.equals(name)) {
+                pending.clear();
+            }
+            control = new Control(name, id, reason);
+            schedule();
+        }
+
+        synchronized void heartbeat() {
+            heartbeat = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (!draining) {
+                draining = true;
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                while (true) {
+                    Control nextControl;
+                    List<Entry> batch;
+                    boolean keepAlive;
+                    synchronized (this) {
+                        nextControl = control;
+                        batch = new ArrayList<>(pending.values());
+                        keepAlive = heartbeat && nextControl == null && batch.isEmpty();
+                        control = null;
+                        pending.clear();
+                        heartbeat = false;
+                        if (nextControl == null && batch.isEmpty() && !keepAlive) {
+                            draining = false;
+                            return;
+                        }
+                    }
+                    if (nextControl != null) {
+                        emitter.send(SseEmitter.event()
+                                .id(formatId(nextControl.id()))
+                                .name(nextControl.name())
+                                .data(Map.of("reason", nextControl.reason()), MediaType.APPLICATION_JSON));
+                    }
+                    for (Entry entry : batch) {
+                        emitter.send(SseEmitter.event()
+                                .id(formatId(entry.id()))
+                                .name(CHANGE_EVENT)
+                                .data(entry.change(), MediaType.APPLICATION_JSON));
+                    }
+                    if (keepAlive) {
+                        emitter.send(SseEmitter.event().comment("keepalive"));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away; the container reports the broken connection to the emitter itself
+                logger.debug("Dropping product change subscriber: {}", e.getMessage());
+                subscribers.remove(this);
+            }
+        }
+    }
+}
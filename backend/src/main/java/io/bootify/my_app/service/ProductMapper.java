@@ -0,0 +1,43 @@
+package io.bootify.my_app.service;
+
+import io.bootify.my_app.dto.ProductDTO;
+import io.bootify.my_app.model.Product;
+
+/**
+ * Entity/DTO copies shared by the controllers and background writers.
+ */
+public final class ProductMapper {
+
+    private ProductMapper() {
+    }
+
+    public static ProductDTO toDTO(Product product) {
+        return new ProductDTO(product.getId(), product.getName(), product.getDescription(), product.getPrice(),
+                product.getStockQuantity(), product.getActive(), product.getVersion());
+    }
+
+    // State before an applied stock delta, rebuilt from the row read back after the UPDATE.
+    // Rows without a version stay unversioned (NULL + 1 is still NULL).
+    public static ProductDTO beforeStockDelta(ProductDTO after, long delta) {
+        Long version = after.getVersion() == null ? null : after.getVersion() - 1;
+        return new ProductDTO(after.getId(), after.getName(), after.getDescription(), after.getPrice(),
+                (int) (after.getStockQuantity() - delta), after.getActive(), version);
+    }
+
+    public static Product toEntity(ProductDTO dto) {
+        Product product = new Product();
+        product.setId(dto.getId());
+        product.setVersion(dto.getVersion());
+        copyToEntity(dto, product);
+        return product;
+    }
+
+    // Copy the editable fields onto an existing (possibly managed) entity; id and version are left alone
+    public static void copyToEntity(ProductDTO dto, Product product) {
+        product.setName(dto.getName());
+        product.setDescription(dto.getDescription());
+        product.setPrice(dto.getPrice());
+        product.setStockQuantity(dto.getStockQuantity());
+        product.setActive(dto.getActive());
+    }
+}
@@ -0,0 +1,494 @@
+package io.bootify.my_app.service;
+
+import io.bootify.my_app.dto.ProductDTO;
+import io.bootify.my_app.dto.SearchHit;
+import io.bootify.my_app.events.DataInitializedEvent;
+import io.bootify.my_app.events.ProductChangedEvent;
+import io.bootify.my_app.repos.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over product names and descriptions.
+ * <p>
+ * Every query token must match (AND). A token matches its exact term. The last token also matches
+ * as a prefix, for typeahead, once it has two characters; it then expands to its most frequent
+ * completions. Tokens of four or more letters also match terms one edit away, found
+ * through a SymSpell-style index of single-character deletions. Hits are ranked by the idf of the
+ * matched terms, weighted by field (name over description) and match kind (exact over prefix over fuzzy).
+ * <p>
+ * Postings are id-sorted primitive arrays. New products get increasing ids, so adding them is an append.
+ * Queries take the read lock and writes the write lock.
+ */
+@Component
+public class ProductSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final byte IN_DESCRIPTION = 1;
+    private static final byte IN_NAME = 2;
+    private static final double PREFIX_FACTOR = 0.6;
+    private static final double FUZZY_FACTOR = 0.4;
+    private static final int MAX_EXPANSIONS = 64;
+    // A single character would walk a large share of all terms, e.g. every number starting with that digit
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int MAX_TOKEN_LENGTH = 40;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern LETTERS = Pattern.compile("\\p{L}+");
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    // term with one character removed -> terms; never pruned, candidates are checked against terms
+    private final Map<String, Set<String>> deletes = new HashMap<>();
+    private final Map<Long, Doc> docs = new HashMap<>();
+    private volatile boolean ready;
+
+    // After seeding, which writes through the repository and publishes no change events
+    @EventListener(DataInitializedEvent.class)
+    public void build() {
+        long start = System.currentTimeMillis();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            // Changes indexed from events while the build runs are newer than the stream
+            try (Stream<ProductDTO> products = productRepository.streamAllDtos()) {
+                products.forEach(this::indexIfAbsent);
+            }
+        });
+        ready = true;
+        logger.info("Indexed {} products ({} terms) for search in {} ms",
+                size(), termCount(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        switch (event.type()) {
+            case CREATED, UPDATED -> index(event.after());
+            case DELETED -> setActive(event.productId(), false);
+            case STOCK_CHANGED -> { }
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void index(ProductDTO product) {
+        Map<String, Byte> termWeights = termWeights(product);
+        lock.writeLock().lock();
+        try {
+            Doc previous = docs.get(product.getId());
+            if (previous != null) {
+                for (String term : previous.terms()) {
+                    removePosting(term, product.getId());
+                }
+            }
+            addDoc(product, termWeights);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void indexIfAbsent(ProductDTO product) {
+        Map<String, Byte> termWeights = termWeights(product);
+        lock.writeLock().lock();
+        try {
+            if (!docs.containsKey(product.getId())) {
+                addDoc(product, termWeights);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void setActive(Long id, boolean active) {
+        lock.writeLock().lock();
+        try {
+            docs.computeIfPresent(id, (key, doc) -> new Doc(doc.name(), active, doc.terms()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<SearchHit> search(String query, int limit, boolean activeOnly) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            double docCount = Math.max(docs.size(), 1);
+            List<TokenCursor> cursors = new ArrayList<>(tokens.size());
+            for (int i = 0; i < tokens.size(); i++) {
+                List<Expansion> expansions = expand(tokens.get(i), i == tokens.size() - 1);
+                if (expansions.isEmpty()) {
+                    return List.of();
+                }
+                cursors.add(new TokenCursor(expansions, docCount));
+            }
+            // Most selective token drives the walk, the others are probed at its ids
+            cursors.sort(Comparator.comparingLong(TokenCursor::postingCount));
+            double bound = 0;
+            for (TokenCursor cursor : cursors) {
+                bound += cursor.maxScore();
+            }
+            return topHits(cursors, bound, limit, activeOnly);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Document-at-a-time walk in id order. Ties go to the lower id, so once the k-th best hit
+    // reaches the best score any product could get, no later product can displace it.
+    private List<SearchHit> topHits(List<TokenCursor> cursors, double bound, int limit, boolean activeOnly) {
+        Comparator<SearchHit> ranking = Comparator.comparingDouble(SearchHit::getScore)
+                .thenComparing(SearchHit::getId, Comparator.reverseOrder());
+        PriorityQueue<SearchHit> top = new PriorityQueue<>(limit + 1, ranking);
+        TokenCursor driver = cursors.get(0);
+        double threshold = bound * (1 - 1e-9);
+        for (long id = driver.nextId(); id != Long.MAX_VALUE; id = driver.nextId()) {
+            double score = driver.scoreAt(id);
+            for (int i = 1; i < cursors.size() && score > 0; i++) {
+                double tokenScore = cursors.get(i).scoreAt(id);
+                score = tokenScore > 0 ? score + tokenScore : 0;
+            }
+            if (score == 0 || (top.size() == limit && score <= top.peek().getScore())) {
+                continue;
+            }
+            Doc doc = docs.get(id);
+            if (doc == null || (activeOnly && !doc.active())) {
+                continue;
+            }
+            top.add(new SearchHit(id, doc.name(), score));
+            if (top.size() > limit) {
+                top.poll();
+            }
+            if (top.size() == limit && top.peek().getScore() >= threshold) {
+                break;
+            }
+        }
+        List<SearchHit> hits = new ArrayList<>(top);
+        hits.sort(ranking.reversed());
+        return hits;
+    }
+
+    private List<Expansion> expand(String token, boolean prefix) {
+        Map<String, Expansion> expansions = new LinkedHashMap<>();
+        Postings exact = terms.get(token);
+        if (exact != null) {
+            expansions.put(token, new Expansion(exact, 1.0));
+        }
+        if (prefix && token.length() >= MIN_PREFIX_LENGTH) {
+            for (Map.Entry<String, Postings> term : frequentCompletions(token)) {
+                expansions.put(term.getKey(), new Expansion(term.getValue(), PREFIX_FACTOR));
+            }
+        }
+        if (isFuzzyCandidate(token)) {
+            for (String candidate : fuzzyCandidates(token)) {
+                Postings postings = terms.get(candidate);
+                if (postings != null && !expansions.containsKey(candidate) && withinOneEdit(token, candidate)) {
+                    expansions.put(candidate, new Expansion(postings, FUZZY_FACTOR));
+                }
+            }
+        }
+        return new ArrayList<>(expansions.values());
+    }
+
+    // The MAX_EXPANSIONS longest posting lists among the terms the token is a proper prefix of; ties go
+    // to the term first in order. Walks the whole range, so the cut does not depend on spelling.
+    private List<Map.Entry<String, Postings>> frequentCompletions(String token) {
+        Comparator<Map.Entry<String, Postings>> frequency = Comparator
+                .<Map.Entry<String, Postings>>comparingInt(term -> term.getValue().size)
+                .thenComparing(Map.Entry::getKey, Comparator.reverseOrder());
+        PriorityQueue<Map.Entry<String, Postings>> top = new PriorityQueue<>(MAX_EXPANSIONS + 1, frequency);
+        int minSize = 0;
+        for (Map.Entry<String, Postings> term : terms.subMap(token, false, token + Character.MAX_VALUE, false).entrySet()) {
+            // Terms come in order, so a later term only displaces one with a shorter list
+            if (term.getValue().size <= minSize) {
+                continue;
+            }
+            top.add(term);
+            if (top.size() > MAX_EXPANSIONS) {
+                top.poll();
+            }
+            if (top.size() == MAX_EXPANSIONS) {
+                minSize = top.peek().getValue().size;
+            }
+        }
+        return new ArrayList<>(top);
+    }
+
+    // Terms one insertion, deletion, substitution or transposition away, found through shared deletions
+    private Set<String> fuzzyCandidates(String token) {
+        Set<String> candidates = new HashSet<>(deletes.getOrDefault(token, Set.of()));
+        for (String deletion : deletions(token)) {
+            candidates.add(deletion);
+            candidates.addAll(deletes.getOrDefault(deletion, Set.of()));
+        }
+        return candidates;
+    }
+
+    private void addDoc(ProductDTO product, Map<String, Byte> termWeights) {
+        for (Map.Entry<String, Byte> entry : termWeights.entrySet()) {
+            Postings postings = terms.get(entry.getKey());
+            if (postings == null) {
+                postings = new Postings();
+                terms.put(entry.getKey(), postings);
+                if (isFuzzyCandidate(entry.getKey())) {
+                    for (String deletion : deletions(entry.getKey())) {
+                        deletes.computeIfAbsent(deletion, key -> new HashSet<>(2)).add(entry.getKey());
+                    }
+                }
+            }
+            postings.put(product.getId(), entry.getValue());
+        }
+        docs.put(product.getId(), new Doc(product.getName(), Boolean.TRUE.equals(product.getActive()),
+                termWeights.keySet().toArray(String[]::new)));
+    }
+
+    private void removePosting(String term, Long id) {
+        Postings postings = terms.get(term);
+        if (postings != null) {
+            postings.remove(id);
+            if (postings.size == 0) {
+                terms.remove(term);
+            }
+        }
+    }
+
+    private static Map<String, Byte> termWeights(ProductDTO product) {
+        Map<String, Byte> termWeights = new LinkedHashMap<>();
+        for (String token : tokenize(product.getName())) {
+            termWeights.merge(token, IN_NAME, (a, b) -> (byte) (a | b));
+        }
+        for (String token : tokenize(product.getDescription())) {
+            termWeights.merge(token, IN_DESCRIPTION, (a, b) -> (byte) (a | b));
+        }
+        return termWeights;
+    }
+
+    // Lowercase, accent-free alphanumeric tokens
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(normalized.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty() && token.length() <= MAX_TOKEN_LENGTH) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    // Numbers and codes only match exactly or by prefix; they would also flood the deletion index
+    private static boolean isFuzzyCandidate(String token) {
+        return token.length() >= MIN_FUZZY_LENGTH && LETTERS.matcher(token).matches();
+    }
+
+    private static List<String> deletions(String term) {
+        List<String> deletions = new ArrayList<>(term.length());
+        for (int i = 0; i < term.length(); i++) {
+            deletions.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        return deletions;
+    }
+
+    // Optimal string alignment distance <= 1 (one insertion, deletion, substitution or adjacent swap)
+    static boolean withinOneEdit(String a, String b) {
+        if (a.equals(b)) {
+            return true;
+        }
+        if (Math.abs(a.length() - b.length()) > 1) {
+            return false;
+        }
+        int start = 0;
+        while (start < Math.min(a.length(), b.length()) && a.charAt(start) == b.charAt(start)) {
+            start++;
+        }
+        if (a.length() == b.length()) {
+            if (a.regionMatches(start + 1, b, start + 1, a.length() - start - 1)) {
+                return true;
+            }
+            return start + 1 < a.length()
+                    && a.charAt(start) == b.charAt(start + 1) && a.charAt(start + 1) == b.charAt(start)
+                    && a.regionMatches(start + 2, b, start + 2, a.length() - start - 2);
+        }
+        String longer = a.length() > b.length() ? a : b;
+        String shorter = a.length() > b.length() ? b : a;
+        return longer.regionMatches(start + 1, shorter, start, shorter.length() - start);
+    }
+
+    private static double idf(double docCount, Postings postings) {
+        return Math.log(1 + docCount / postings.size);
+    }
+
+    private record Doc(String name, boolean active, String[] terms) {
+    }
+
+    private record Expansion(Postings postings, double factor) {
+    }
+
+    // One query token: the union of its expansions, walked in id order
+    private static final class TokenCursor {
+        private final Postings[] postings;
+        private final double[] weights;
+        private final int[] positions;
+
+        TokenCursor(List<Expansion> expansions, double docCount) {
+            postings = new Postings[expansions.size()];
+            weights = new double[expansions.size()];
+            positions = new int[expansions.size()];
+            for (int i = 0; i < postings.length; i++) {
+                postings[i] = expansions.get(i).postings();
+                weights[i] = idf(docCount, postings[i]) * expansions.get(i).factor();
+            }
+        }
+
+        long postingCount() {
+            long count = 0;
+            for (Postings expansion : postings) {
+                count += expansion.size;
+            }
+            return count;
+        }
+
+        double maxScore() {
+            double max = 0;
+            for (int i = 0; i < postings.length; i++) {
+                max = Math.max(max, weights[i] * postings[i].maxWeight);
+            }
+            return max;
+        }
+
+        // Smallest id not yet consumed, or Long.MAX_VALUE when exhausted
+        long nextId() {
+            long next = Long.MAX_VALUE;
+            for (int i = 0; i < postings.length; i++) {
+                if (positions[i] < postings[i].size) {
+                    next = Math.min(next, postings[i].ids[positions[i]]);
+                }
+            }
+            return next;
+        }
+
+        // Best weighted match of this token on the product, 0 if none; never moves backwards
+        double scoreAt(long id) {
+            double best = 0;
+            for (int i = 0; i < postings.length; i++) {
+                int position = postings[i].seek(positions[i], id);
+                if (position < postings[i].size && postings[i].ids[position] == id) {
+                    best = Math.max(best, weights[i] * postings[i].weights[position]);
+                    position++;
+                }
+                positions[i] = position;
+            }
+            return best;
+        }
+    }
+
+    // Product ids sorted ascending, with the fields (IN_NAME | IN_DESCRIPTION) the term occurs in
+    private static final class Postings {
+        private long[] ids = new long[2];
+        private byte[] weights = new byte[2];
+        private int size;
+        // Upper bound for scoring; not lowered on remove
+        private byte maxWeight;
+
+        void put(long id, byte weight) {
+            maxWeight = (byte) Math.max(maxWeight, weight);
+            int index = size > 0 && ids[size - 1] < id ? -(size + 1) : Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                weights[index] = weight;
+                return;
+            }
+            index = -(index + 1);
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            System.arraycopy(weights, index, weights, index + 1, size - index);
+            ids[index] = id;
+            weights[index] = weight;
+            size++;
+        }
+
+        void remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+                System.arraycopy(weights, index + 1, weights, index, size - index - 1);
+                size--;
+            }
+        }
+
+        // First position at or after from whose id is >= id, galloping before the binary search
+        int seek(int from, long id) {
+            if (from >= size || ids[from] >= id) {
+                return from;
+            }
+            int step = 1;
+            int low = from;
+            int high = from + 1;
+            while (high < size && ids[high] < id) {
+                low = high;
+                step <<= 1;
+                high = from + step;
+            }
+            int index = Arrays.binarySearch(ids, low + 1, Math.min(high, size - 1) + 1, id);
+            return index >= 0 ? index : -(index + 1);
+        }
+    }
+}
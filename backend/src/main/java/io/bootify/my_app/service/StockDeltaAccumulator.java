@@ -0,0 +1,138 @@
+package io.bootify.my_app.service;
+
+import io.bootify.my_app.dto.ProductDTO;
+import io.bootify.my_app.events.ProductChangedEvent;
+import io.bootify.my_app.repos.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Optional coalescing of stock deltas for hot products. Deltas are summed per product in a LongAdder,
+ * which is striped, so concurrent sales of one SKU do not contend on a row lock. Each flush applies the
+ * net deltas as one JDBC batch of conditional UPDATEs. The caller already got 202, so a net delta that
+ * would drive stock negative is dropped at flush time, logged and counted. If the flush itself fails,
+ * the drained deltas are added back and retried with the next flush.
+ */
+@Component
+public class StockDeltaAccumulator {
+    private static final Logger logger = LoggerFactory.getLogger(StockDeltaAccumulator.class);
+
+    private static final String ADJUST_STOCK_SQL = "UPDATE products SET stock_quantity = stock_quantity + ?, "
+            + "version = version + 1 WHERE id = ? AND stock_quantity + ? >= 0";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.products.stock.coalesce.enabled:false}")
+    private boolean enabled;
+
+    // Entries are never removed: a concurrent add() could otherwise land on a detached adder
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    private Counter appliedDeltas;
+    private Counter rejectedDeltas;
+    private Counter failedFlushes;
+
+    @PostConstruct
+    public void init() {
+        appliedDeltas = meterRegistry.counter("products.stock.coalesced", "result", "applied");
+        rejectedDeltas = meterRegistry.counter("products.stock.coalesced", "result", "rejected");
+        failedFlushes = meterRegistry.counter("products.stock.coalesced.flush.failed");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void add(Long productId, int delta) {
+        pending.computeIfAbsent(productId, id -> new LongAdder()).add(delta);
+    }
+
+    @Scheduled(fixedDelayString = "${app.products.stock.coalesce.flush-interval-ms:100}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        // sumThenReset drains each cell atomically, so a concurrent add is counted now or next time
+        Map<Long, Long> deltas = new HashMap<>();
+        pending.forEach((id, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta != 0) {
+                deltas.put(id, delta);
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            transaction.executeWithoutResult(status -> apply(deltas));
+        } catch (RuntimeException e) {
+            // Rolled back, so nothing was applied: put the deltas back for the next flush
+            deltas.forEach((id, delta) -> pending.get(id).add(delta));
+            failedFlushes.increment();
+            logger.error("Stock delta flush failed, {} product deltas kept for retry", deltas.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void apply(Map<Long, Long> deltas) {
+        List<Long> ids = new ArrayList<>(deltas.keySet());
+        List<Object[]> batchArgs = ids.stream()
+                .map(id -> new Object[] {deltas.get(id), id, deltas.get(id)})
+                .toList();
+        int[] counts = jdbcTemplate.batchUpdate(ADJUST_STOCK_SQL, batchArgs);
+
+        List<Long> appliedIds = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                rejectedDeltas.increment();
+                logger.warn("Dropped coalesced stock delta {} for product {}: product missing or stock would go negative",
+                        deltas.get(ids.get(i)), ids.get(i));
+            } else {
+                appliedDeltas.increment();
+                appliedIds.add(ids.get(i));
+            }
+        }
+
+        for (ProductDTO after : productRepository.findDtosByIdIn(appliedIds)) {
+            ProductDTO before = ProductMapper.beforeStockDelta(after, deltas.get(after.getId()));
+            eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.STOCK_CHANGED, before, after));
+        }
+    }
+}
@@ -0,0 +1,5 @@
+-- Name-sorted keyset pages order by (name, id)
+CREATE INDEX idx_products_name_id ON products (name, id);
+
+-- The primary key leads with role_id; loading a user's roles looks them up by user_id
+CREATE INDEX idx_user_roles_user_id ON user_roles (user_id);
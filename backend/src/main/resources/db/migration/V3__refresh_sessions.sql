@@ -0,0 +1,13 @@
+-- One row per login session: the hash of its current refresh token and of the one it replaced, so the
+-- reuse of a rotated token is recognised
+CREATE TABLE refresh_sessions (
+    session_id VARCHAR(36) NOT NULL,
+    username VARCHAR(255) NOT NULL,
+    token_hash VARCHAR(64) NOT NULL,
+    previous_token_hash VARCHAR(64),
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP,
+    CONSTRAINT pk_refresh_sessions PRIMARY KEY (session_id)
+);
+
+CREATE INDEX idx_refresh_sessions_expires_at ON refresh_sessions (expires_at);
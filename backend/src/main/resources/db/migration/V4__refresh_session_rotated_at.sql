@@ -0,0 +1,3 @@
+-- When the current refresh token replaced the previous one; the previous token is not treated as copied
+-- until the reuse grace period after this has passed
+ALTER TABLE refresh_sessions ADD COLUMN rotated_at TIMESTAMP;
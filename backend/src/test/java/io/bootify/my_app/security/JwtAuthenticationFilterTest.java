@@ -0,0 +1,100 @@
+package io.bootify.my_app.security;
+
+import io.bootify.my_app.events.UserChangedEvent;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationFilterTest {
+
+    private static final String TOKEN = "token";
+
+    private final JwtUtils jwtUtils = mock(JwtUtils.class);
+    private final UserDetailsService userDetailsService = mock(UserDetailsService.class);
+    private final TokenRevocationList revocationList = mock(TokenRevocationList.class);
+    private final PrincipalCache principalCache = new PrincipalCache();
+    private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(principalCache, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(principalCache, "maxSize", 100L);
+        ReflectionTestUtils.setField(principalCache, "jwtExpirationMs", 900_000L);
+        principalCache.init();
+
+        ReflectionTestUtils.setField(filter, "jwtUtils", jwtUtils);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filter, "principalCache", principalCache);
+        ReflectionTestUtils.setField(filter, "revocationList", revocationList);
+        ReflectionTestUtils.setField(filter, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filter, "authMode", "claims");
+        filter.init();
+
+        Claims claims = Jwts.claims().setSubject("user");
+        claims.setIssuedAt(new Date(System.currentTimeMillis() - 10_000));
+        claims.put(JwtUtils.ROLES_CLAIM, List.of("ROLE_USER"));
+        when(jwtUtils.cachedClaims(TOKEN)).thenReturn(claims);
+        when(userDetailsService.loadUserByUsername("user")).thenReturn(
+                User.withUsername("user").password("hash").authorities("ROLE_ADMIN").build());
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void trustsTokenRolesUntilTheUserChanges() throws Exception {
+        assertThat(authenticate()).containsExactly("ROLE_USER");
+        verify(userDetailsService, never()).loadUserByUsername(any());
+
+        principalCache.onUserChanged(new UserChangedEvent("user"));
+
+        assertThat(authenticate()).containsExactly("ROLE_ADMIN");
+        verify(userDetailsService).loadUserByUsername("user");
+    }
+
+    @Test
+    void tokenIssuedAfterTheChangeCarriesTrustedRolesAgain() throws Exception {
+        principalCache.onUserChanged(new UserChangedEvent("user"));
+        Claims fresh = Jwts.claims().setSubject("user");
+        fresh.setIssuedAt(new Date(System.currentTimeMillis() + 1_000));
+        fresh.put(JwtUtils.ROLES_CLAIM, List.of("ROLE_ADMIN"));
+        when(jwtUtils.cachedClaims(TOKEN)).thenReturn(fresh);
+
+        assertThat(authenticate()).containsExactly("ROLE_ADMIN");
+        verify(userDetailsService, never()).loadUserByUsername(any());
+    }
+
+    private List<String> authenticate() throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + TOKEN);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication).isNotNull();
+        return authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+    }
+}
@@ -0,0 +1,116 @@
+package io.bootify.my_app.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RefreshSessionStoreTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TokenRevocationList revocationList = new TokenRevocationList();
+    private final RefreshSessionStore store = new RefreshSessionStore();
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("db/migration/V3__refresh_sessions.sql")
+                .addScript("db/migration/V4__refresh_session_rotated_at.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+
+        ReflectionTestUtils.setField(revocationList, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(revocationList, "bucketMs", 300_000L);
+        ReflectionTestUtils.setField(revocationList, "bloomBits", 1024);
+        revocationList.init();
+
+        ReflectionTestUtils.setField(store, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(store, "revocationList", revocationList);
+        ReflectionTestUtils.setField(store, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(store, "accessTokenExpirationMs", 900_000L);
+        ReflectionTestUtils.setField(store, "sessionExpirationMs", 3_600_000L);
+        ReflectionTestUtils.setField(store, "reuseGraceMs", 10_000L);
+        store.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void concurrentRefreshesWithOneTokenShareTheSuccessor() throws Exception {
+        RefreshSessionStore.Session session = store.create("user");
+        int callers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<RefreshSessionStore.Session>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                Callable<RefreshSessionStore.Session> refresh = () -> {
+                    start.await();
+                    return store.rotate(session.refreshToken());
+                };
+                results.add(executor.submit(refresh));
+            }
+            start.countDown();
+
+            String successor = results.get(0).get().refreshToken();
+            assertThat(successor).isNotEqualTo(session.refreshToken());
+            for (Future<RefreshSessionStore.Session> result : results) {
+                assertThat(result.get()).isNotNull();
+                assertThat(result.get().refreshToken()).isEqualTo(successor);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(revocationList.isRevoked(session.id())).isFalse();
+        assertThat(meterRegistry.counter("auth.refresh.reused").count()).isZero();
+    }
+
+    @Test
+    void retryWithinGracePeriodGetsTheSameSuccessor() {
+        RefreshSessionStore.Session session = store.create("user");
+        RefreshSessionStore.Session first = store.rotate(session.refreshToken());
+        RefreshSessionStore.Session retry = store.rotate(session.refreshToken());
+
+        assertThat(retry.refreshToken()).isEqualTo(first.refreshToken());
+        assertThat(store.rotate(first.refreshToken())).isNotNull();
+        assertThat(revocationList.isRevoked(session.id())).isFalse();
+    }
+
+    @Test
+    void replacedTokenAfterGracePeriodRevokesTheSession() {
+        RefreshSessionStore.Session session = store.create("user");
+        assertThat(store.rotate(session.refreshToken())).isNotNull();
+        // As if the rotation happened on another instance, long enough ago
+        ReflectionTestUtils.setField(store, "reuseGraceMs", 0L);
+        store.init();
+        jdbcTemplate.update("UPDATE refresh_sessions SET rotated_at = ?",
+                new Timestamp(System.currentTimeMillis() - 60_000));
+
+        assertThat(store.rotate(session.refreshToken())).isNull();
+        assertThat(revocationList.isRevoked(session.id())).isTrue();
+        assertThat(meterRegistry.counter("auth.refresh.reused").count()).isEqualTo(1);
+    }
+}
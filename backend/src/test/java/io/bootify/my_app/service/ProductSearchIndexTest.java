@@ -0,0 +1,38 @@
+package io.bootify.my_app.service;
+
+import io.bootify.my_app.dto.ProductDTO;
+import io.bootify.my_app.dto.SearchHit;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSearchIndexTest {
+
+    private final ProductSearchIndex index = new ProductSearchIndex();
+
+    @Test
+    void shortPrefixKeepsTheMostCommonCompletion() {
+        long id = 1;
+        // 64 rare terms that all sort before "camera"
+        for (int i = 0; i < 64; i++) {
+            index.index(product(id++, String.format("Cab%03d", i)));
+        }
+        long firstCamera = id;
+        for (int i = 0; i < 10; i++) {
+            index.index(product(id++, "Camera"));
+        }
+
+        List<Long> ids = index.search("ca", 100, false).stream().map(SearchHit::getId).toList();
+
+        for (long cameraId = firstCamera; cameraId < id; cameraId++) {
+            assertThat(ids).contains(cameraId);
+        }
+    }
+
+    private static ProductDTO product(long id, String name) {
+        return new ProductDTO(id, name, null, BigDecimal.ONE, 1, true, 0L);
+    }
+}
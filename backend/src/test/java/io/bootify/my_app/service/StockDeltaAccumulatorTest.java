@@ -0,0 +1,66 @@
+package io.bootify.my_app.service;
+
+import io.bootify.my_app.repos.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StockDeltaAccumulatorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final StockDeltaAccumulator accumulator = new StockDeltaAccumulator();
+
+    @BeforeEach
+    void setUp() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        ReflectionTestUtils.setField(accumulator, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(accumulator, "productRepository", productRepository);
+        ReflectionTestUtils.setField(accumulator, "eventPublisher", mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(accumulator, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(accumulator, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(accumulator, "enabled", true);
+        accumulator.init();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failedFlushKeepsTheDeltasForTheNextOne() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(new int[] {1});
+        when(productRepository.findDtosByIdIn(anyList())).thenReturn(List.of());
+
+        accumulator.add(1L, -3);
+        accumulator.flush();
+        accumulator.add(1L, -2);
+        accumulator.flush();
+
+        ArgumentCaptor<List<Object[]>> batchArgs = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), batchArgs.capture());
+        assertThat(batchArgs.getAllValues().get(1).get(0)).containsExactly(-5L, 1L, -5L);
+        assertThat(meterRegistry.counter("products.stock.coalesced.flush.failed").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("products.stock.coalesced", "result", "applied").count()).isEqualTo(1);
+    }
+}
@@ -31,6 +31,20 @@ export default function ProductsPage() {
 
   useEffect(() => {
     loadProducts();
+    // Edits by other admins arrive as change events instead of re-polling the list
+    return productService.subscribeToChanges(
+      (change) =>
+        setProducts((current) => {
+          const index = current.findIndex((product) => product.id === change.productId);
+          if (index < 0) {
+            return [...current, change.product];
+          }
+          const next = [...current];
+          next[index] = change.product;
+          return next;
+        }),
+      () => loadProducts()
+    );
   }, []);
 
   const loadProducts = async () => {
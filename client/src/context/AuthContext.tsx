@@ -1,5 +1,5 @@
 "use client";
-import { createContext, useContext, useState, useEffect, ReactNode } from 'react';
+import { createContext, useContext, useState, useEffect, useCallback, ReactNode } from 'react';
 import { useRouter } from 'next/navigation';
 
 interface AuthContextType {
@@ -28,6 +28,21 @@ const LoadingWrapper = ({ children, isLoading }: LoadingWrapperProps) => {
   return <>{children}</>;
 };
 
+interface TokenResponse {
+  token: string;
+  refreshToken: string;
+  expiresIn: number;
+}
+
+// Access tokens are short-lived; they are renewed this long before they expire
+const REFRESH_MARGIN_MS = 60_000;
+
+const storeTokens = (data: TokenResponse) => {
+  sessionStorage.setItem('token', data.token);
+  sessionStorage.setItem('refreshToken', data.refreshToken);
+  sessionStorage.setItem('tokenExpiresAt', String(Date.now() + data.expiresIn * 1000));
+};
+
 export function AuthProvider({ children }: { children: ReactNode }) {
   const [token, setToken] = useState<string | null>(null);
   const [isAuthenticated, setIsAuthenticated] = useState<boolean | null>(null);
@@ -51,6 +66,48 @@ export function AuthProvider({ children }: { children: ReactNode }) {
     }
   };
 
+  // Exchanges the stored refresh token for a new token pair; the old refresh token stops working
+  const refreshTokens = useCallback(async (): Promise<string | null> => {
+    const refreshToken = sessionStorage.getItem('refreshToken');
+    if (!refreshToken) {
+      return null;
+    }
+    try {
+      const response = await fetch('/api/auth/refresh', {
+        method: 'POST',
+        headers: {
+          'Content-Type': 'application/json',
+        },
+        credentials: 'include',
+        body: JSON.stringify({ refreshToken }),
+      });
+      if (!response.ok) {
+        return null;
+      }
+      const data: TokenResponse = await response.json();
+      storeTokens(data);
+      setToken(data.token);
+      return data.token;
+    } catch (error) {
+      console.error('Token refresh error:', error);
+      return null;
+    }
+  }, []);
+
+  // Renews the access token shortly before it expires, for as long as the session lasts
+  useEffect(() => {
+    if (!token) return;
+    const expiresAt = Number(sessionStorage.getItem('tokenExpiresAt') || 0);
+    const timer = setTimeout(async () => {
+      if (!(await refreshTokens())) {
+        sessionStorage.clear();
+        setToken(null);
+        setIsAuthenticated(false);
+      }
+    }, Math.max(expiresAt - Date.now() - REFRESH_MARGIN_MS, 0));
+    return () => clearTimeout(timer);
+  }, [token, refreshTokens]);
+
   useEffect(() => {
     const initializeAuth = async () => {
       try {
@@ -64,7 +121,11 @@ export function AuthProvider({ children }: { children: ReactNode }) {
 
         const isValid = await validateToken(storedToken);
         if (!isValid) {
-          sessionStorage.removeItem('token');
+          if (await refreshTokens()) {
+            setIsAuthenticated(true);
+            return;
+          }
+          sessionStorage.clear();
           setToken(null);
           setIsAuthenticated(false);
           setIsLoading(false);
@@ -84,7 +145,7 @@ export function AuthProvider({ children }: { children: ReactNode }) {
     };
 
     initializeAuth();
-  }, []);
+  }, [refreshTokens]);
 
   // Handle auth state changes
   useEffect(() => {
@@ -129,10 +190,8 @@ export function AuthProvider({ children }: { children: ReactNode }) {
         throw new Error(errorMessage);
       }
 
-      const newToken = data.token;
-      
-      sessionStorage.setItem('token', newToken);
-      setToken(newToken);
+      storeTokens(data);
+      setToken(data.token);
       setIsAuthenticated(true);
       
       router.push('/');
@@ -6,6 +6,12 @@ interface Product {
   quantity: number;
 }
 
+export interface ProductChange {
+  type: 'CREATED' | 'UPDATED' | 'STOCK_CHANGED' | 'DELETED';
+  productId: number;
+  product: Product;
+}
+
 interface ApiError extends Error {
   status?: number;
   code?: string;
@@ -168,4 +174,81 @@ export const productService = {
       throw error;
     }
   },
-};
\ No newline at end of file
+
+  // Streams committed product changes (Server-Sent Events) until the returned function is called.
+  // fetch is used instead of EventSource so the bearer token can be sent. Reconnects resume with
+  // Last-Event-ID; onReset means the server could not replay what was missed and the list must be reloaded.
+  subscribeToChanges: (onChange: (change: ProductChange) => void, onReset: () => void): (() => void) => {
+    const controller = new AbortController();
+    let lastEventId: string | null = null;
+
+    const dispatch = (block: string) => {
+      let event = 'message';
+      const data: string[] = [];
+      for (const line of block.split('\n')) {
+        if (line.startsWith('id:')) {
+          lastEventId = line.slice(3).trim();
+        } else if (line.startsWith('event:')) {
+          event = line.slice(6).trim();
+        } else if (line.startsWith('data:')) {
+          data.push(line.slice(5));
+        }
+      }
+      if (event === 'change') {
+        onChange(JSON.parse(data.join('\n')));
+      } else if (event === 'reset') {
+        onReset();
+      }
+    };
+
+    const connect = async () => {
+      while (!controller.signal.aborted) {
+        try {
+          const headers: Record<string, string> = { ...getAuthHeaders(), 'Accept': 'text/event-stream' };
+          if (lastEventId) {
+            headers['Last-Event-ID'] = lastEventId;
+          }
+          const response = await fetch(`${BASE_URL}/products/events`, {
+            method: 'GET',
+            headers,
+            credentials: 'include',
+            signal: controller.signal
+          });
+          if (!response.ok || !response.body) {
+            const error: ApiError = new Error(`Product change feed failed (Status: ${response.status})`);
+            error.status = response.status;
+            throw error;
+          }
+
+          const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+          let buffer = '';
+          for (;;) {
+            const { value, done } = await reader.read();
+            if (done) {
+              break;
+            }
+            buffer += value;
+            let boundary;
+            while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+              dispatch(buffer.slice(0, boundary));
+              buffer = buffer.slice(boundary + 2);
+            }
+          }
+        } catch (error) {
+          if (controller.signal.aborted) {
+            return;
+          }
+          console.error('Product change feed:', error);
+          if (error instanceof Error && (error.message === 'No authentication token found' ||
+              (error as ApiError).status === 401 || (error as ApiError).status === 403)) {
+            return;
+          }
+        }
+        await new Promise((resolve) => setTimeout(resolve, 3000));
+      }
+    };
+
+    connect();
+    return () => controller.abort();
+  },
+};